@@ -1,30 +1,64 @@
 package com.is.auth.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caffeine-кэши с отдельной политикой на каждое имя.
+ * Спека переопределяется свойством app.cache.<имя>.spec (формат CaffeineSpec, например
+ * "maximumSize=500,expireAfterWrite=2m,recordStats"). recordStats добавляется всегда — hit/miss/eviction/load
+ * попадают в Prometheus через метрики кэшей actuator'а (cache.gets, cache.evictions, cache.load.duration ...).
+ * refreshAfterWrite требует CacheLoader, которого у @Cacheable нет, поэтому для этих кэшей не поддерживается.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
-    
+
+    // Для кэшей, созданных динамически (имя не из списка ниже)
+    private static final String DEFAULT_SPEC = "maximumSize=1000,expireAfterWrite=10m";
+
+    private static final Map<String, String> CACHE_SPECS = new LinkedHashMap<>();
+
+    static {
+        CACHE_SPECS.put("userProfilePictures", "maximumSize=10000,expireAfterWrite=30m");
+        // Имена не меняются после регистрации
+        CACHE_SPECS.put("chatSenderNames", "maximumSize=10000,expireAfterWrite=1h");
+        CACHE_SPECS.put("userProfiles", "maximumSize=5000,expireAfterWrite=5m");
+        // Последние сообщения каждого чата для цитат, ограничены и внутри ивента
+        CACHE_SPECS.put("chatRecentParents", "maximumSize=1000,expireAfterAccess=30m");
+        CACHE_SPECS.put("eventMessages", "maximumSize=2000,expireAfterWrite=1m");
+        CACHE_SPECS.put("events", "maximumSize=2000,expireAfterWrite=2m");
+        CACHE_SPECS.put("eventsByCity", "maximumSize=1000,expireAfterWrite=2m");
+        CACHE_SPECS.put("organizationEvents", "maximumSize=1000,expireAfterWrite=2m");
+        // Календари доступности обновляются инкрементально, TTL только страхует от расхождений
+        CACHE_SPECS.put("placeAvailability", "maximumSize=2000,expireAfterWrite=30m");
+        // Справочники меняются редко
+        CACHE_SPECS.put("sports", "maximumSize=50,expireAfterWrite=12h");
+        CACHE_SPECS.put("skills", "maximumSize=50,expireAfterWrite=12h");
+        CACHE_SPECS.put("cities", "maximumSize=500,expireAfterWrite=12h");
+        CACHE_SPECS.put("countries", "maximumSize=50,expireAfterWrite=12h");
+        CACHE_SPECS.put("sportAttributeModels", "maximumSize=500,expireAfterWrite=12h");
+    }
+
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
-        cacheManager.setCacheNames(java.util.Arrays.asList(
-            "userProfilePictures",
-            "userProfiles",
-            "eventMessages",
-            "events",
-            "sports",
-            "skills",
-            "cities",
-            "countries",
-            "sportAttributeModels",
-            "organizationEvents"
-        ));
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(caffeine(environment.getProperty("app.cache.default.spec", DEFAULT_SPEC)));
+        CACHE_SPECS.forEach((name, spec) -> cacheManager.registerCustomCache(name,
+                caffeine(environment.getProperty("app.cache." + name + ".spec", spec)).build()));
         return cacheManager;
     }
-} 
\ No newline at end of file
+
+    private static Caffeine<Object, Object> caffeine(String spec) {
+        return Caffeine.from(CaffeineSpec.parse(spec)).recordStats();
+    }
+}
@@ -18,6 +18,7 @@ import com.is.auth.repository.*;
 import com.is.auth.service.EmailService;
 import com.is.auth.service.RequestLogger;
 import com.is.auth.service.FileStorageService;
+import com.is.auth.service.UserAvatarCache;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
@@ -37,7 +38,6 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.cache.annotation.CacheEvict;
 
 import javax.crypto.SecretKey;
 import java.io.File;
@@ -81,6 +81,9 @@ public class UserService {
     @Autowired
     private EventsService eventsService;
 
+    @Autowired
+    private UserAvatarCache userAvatarCache;
+
     @Autowired
     private Logger logger;
 
@@ -637,6 +640,7 @@ public class UserService {
             UserAdditionalInfo userAdditionalInfo = userInfo.get();
             userAdditionalInfo.setProfilePictureUrl(fileUrl);
             userAdditionalInfoRepository.save(userAdditionalInfo);
+            userAvatarCache.evict(userId);
             
             return ResponseEntity.ok(new Response(200, "PROFILE_PICTURE_UPDATED", fileUrl));
         } catch (Exception e) {
@@ -797,18 +801,8 @@ public class UserService {
         }
     }
 
-    @Cacheable(value = "userProfilePictures", key = "#userIds")
     public Map<Long, String> getUsersProfilePicturesForChat(List<Long> userIds) {
-        Map<Long, String> userAvatars = new HashMap<>();
-        try {
-            List<UserAdditionalInfo> userInfos = userAdditionalInfoRepository.findAllById(userIds);
-            for (UserAdditionalInfo info : userInfos) {
-                userAvatars.put(info.getUserId(), info.getProfilePictureUrl() != null ? info.getProfilePictureUrl() : "");
-            }
-        } catch (Exception e) {
-            log.error("Error getting user profile pictures for chat: {}", e.getMessage());
-        }
-        return userAvatars;
+        return userAvatarCache.getAvatars(userIds);
     }
 
     @Transactional
@@ -833,14 +827,12 @@ public class UserService {
         }
     }
 
-    @CacheEvict(value = "userProfilePictures", allEntries = true)
     public void clearUserProfilePicturesCache() {
-        // Method to clear cache when needed
+        userAvatarCache.evictAll();
     }
 
-    @CacheEvict(value = "userProfilePictures", key = "#userId")
     public void clearUserProfilePictureCache(Long userId) {
-        // Method to clear specific user's cache
+        userAvatarCache.evict(userId);
     }
 }
 
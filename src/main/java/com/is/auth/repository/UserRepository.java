@@ -2,8 +2,12 @@ package com.is.auth.repository;
 
 import com.is.auth.model.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,6 +15,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     User getUserInfoByEmail(String email);
+
+    // (user_id, first_name, last_name, user_details.user_id, profile_picture_url) для отправителей чата
+    @Query(value = """
+            SELECT u.user_id, u.first_name, u.last_name, d.user_id AS details_id, d.profile_picture_url
+            FROM users.users u
+            LEFT JOIN users.user_details d ON d.user_id = u.user_id
+            WHERE u.user_id IN (:userIds)
+            """, nativeQuery = true)
+    List<Object[]> findChatSenders(@Param("userIds") Collection<Long> userIds);
 }
 
 
@@ -3,6 +3,7 @@ package com.is.auth.service;
 import com.is.auth.model.email.EmailVerificationCode;
 import com.is.auth.repository.EmailVerificationCodeRepository;
 import com.is.events.model.Event;
+import com.is.events.model.enums.EventStatus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -743,7 +744,7 @@ public class EmailService {
         }
     }
 
-    public ResponseEntity<?> sendEventStatusChangeNotification(Event event, String lang, String placeName, String placePhone) {
+    public ResponseEntity<?> sendEventStatusChangeNotification(Event event, EventStatus status, String lang, String placeName, String placePhone) {
         try {
             // Add null check for placePhone
             String safePlacePhone = placePhone != null ? placePhone : "+998 (XX) XXX-XX-XX";
@@ -1010,12 +1011,12 @@ public class EmailService {
                 new AbstractMap.SimpleEntry<>("uz_copyright", "© 2025 Place&Play. Barcha huquqlar himoyalangan.")
             );
 
-            String prefix = texts.containsKey(lang + "_subject_" + event.getStatus().name().toLowerCase()) ? lang : "ru";
-            String subjectKey = "subject_" + event.getStatus().name().toLowerCase();
-            String messageKey = event.getStatus().name().toLowerCase();
+            String prefix = texts.containsKey(lang + "_subject_" + status.name().toLowerCase()) ? lang : "ru";
+            String subjectKey = "subject_" + status.name().toLowerCase();
+            String messageKey = status.name().toLowerCase();
 
             log.info("Processing event status change notification - Status: {}, Language: {}, Prefix: {}, MessageKey: {}", 
-                event.getStatus(), lang, prefix, messageKey);
+                status, lang, prefix, messageKey);
 
             // Format date and time according to locale
             DateTimeFormatter formatter = DateTimeFormatter.ofPattern(
@@ -1033,7 +1034,7 @@ public class EmailService {
             if (template == null) {
                 log.error("Missing template for status change notification - TemplateKey: {}, Available keys: {}", 
                     templateKey, texts.keySet());
-                throw new IllegalStateException("Missing template for status: " + event.getStatus() + " and language: " + lang);
+                throw new IllegalStateException("Missing template for status: " + status + " and language: " + lang);
             }
 
             // Add null check for organizer name
@@ -1041,7 +1042,7 @@ public class EmailService {
                 ? event.getOrganizerEvent().getOrganizerName() 
                 : "User";
 
-            String statusMessage = switch (event.getStatus()) {
+            String statusMessage = switch (status) {
                 case REJECTED -> String.format(template, safePlaceName, safePlacePhone);
                 case CONFIRMED -> String.format(template, safePlaceName, formattedDateTime, safePlacePhone);
                 case CHANGES_REQUESTED -> String.format(template, safePlaceName, safePlacePhone);
@@ -0,0 +1,85 @@
+package com.is.auth.service;
+
+import com.is.auth.model.user.UserAdditionalInfo;
+import com.is.auth.repository.UserAdditionalInfoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Аватары пользователей в кэше userProfilePictures, по одной записи на userId.
+ * Попадания отдаются из кэша, все промахи догружаются одним findAllById.
+ * Общий для чата (ChatSenderDirectory) и карточек ивентов (EventDTOAssembler).
+ */
+@Service
+@Slf4j
+public class UserAvatarCache {
+
+    private static final String CACHE_NAME = "userProfilePictures";
+
+    private final UserAdditionalInfoRepository userAdditionalInfoRepository;
+    private final Cache cache;
+
+    public UserAvatarCache(UserAdditionalInfoRepository userAdditionalInfoRepository, CacheManager cacheManager) {
+        this.userAdditionalInfoRepository = userAdditionalInfoRepository;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    // userId -> URL аватара ("" если не задан); пользователей без user_details в карте нет
+    public Map<Long, String> getAvatars(Collection<Long> userIds) {
+        Map<Long, String> avatars = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return avatars;
+        }
+
+        Set<Long> misses = new HashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            String cached = cache.get(userId, String.class);
+            if (cached != null) {
+                avatars.put(userId, cached);
+            } else {
+                misses.add(userId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            try {
+                for (UserAdditionalInfo info : userAdditionalInfoRepository.findAllById(misses)) {
+                    String url = info.getProfilePictureUrl() != null ? info.getProfilePictureUrl() : "";
+                    cache.put(info.getUserId(), url);
+                    avatars.put(info.getUserId(), url);
+                }
+            } catch (Exception e) {
+                log.error("Error loading profile pictures for users {}: {}", misses, e.getMessage());
+            }
+        }
+        return avatars;
+    }
+
+    public String getAvatar(Long userId) {
+        return getAvatars(List.of(userId)).getOrDefault(userId, "");
+    }
+
+    // Только кэш, без запроса в БД; null — промах
+    public String getCachedAvatar(Long userId) {
+        return cache.get(userId, String.class);
+    }
+
+    public void put(Long userId, String url) {
+        cache.put(userId, url != null ? url : "");
+    }
+
+    public void evict(Long userId) {
+        cache.evict(userId);
+    }
+
+    public void evictAll() {
+        cache.clear();
+    }
+}
@@ -1,10 +1,12 @@
 package com.is.events.api;
 
 import com.is.events.dto.*;
+import com.is.events.exception.EventValidationException;
 import com.is.events.model.Event;
 import com.is.events.model.EventFilterDTO;
 import com.is.events.model.EventSpecification;
 import com.is.events.model.enums.EventStatus;
+import com.is.events.service.EventDiscoveryIndex;
 import com.is.events.service.EventsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -46,23 +48,43 @@ public class EventsController {
     }
 
     @GetMapping("/pagination")
-    @Operation(summary = "Get events with filtering and pagination")
-    public ResponseEntity<Page<EventDTO>> getEvents(
+    @Operation(summary = "Get events with filtering and pagination",
+            description = "search — полнотекстовый поиск (язык из заголовка language), без cursor результаты ранжируются по ts_rank. Без cursor — Page с totalElements. С cursor (пустой для первой страницы) — keyset-срез по (dateTime, eventId) с nextCursor. envelope=compact — {items, nextCursor, hasMore}")
+    public ResponseEntity<?> getEvents(
             @RequestParam(required = false) Long placeId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) Double priceMin,
+            @RequestParam(required = false) Double priceMax,
+            @RequestParam(required = false) Integer availableSpots,
+            @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "dateTime") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDirection) {
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String envelope,
+            @RequestHeader(defaultValue = "ru") String language) {
         
         EventFilterDTO filter = new EventFilterDTO();
         filter.setPlaceId(placeId != null ? placeId.toString() : null);
         filter.setDate(date);
+        filter.setEventType(eventType);
+        filter.setPriceMin(priceMin);
+        filter.setPriceMax(priceMax);
+        filter.setAvailableSpots(availableSpots);
+        filter.setSearch(search);
+        filter.setSearchLanguage(language);
         filter.setPage(page);
         filter.setSize(size);
         filter.setSortBy(sortBy);
         filter.setSortDirection(sortDirection);
 
+        if (cursor != null) {
+            Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+            return respond(eventsService.findSlice(EventSpecification.withFilters(filter), cursor, size, direction), envelope);
+        }
+
         // Создаем объект сортировки
         Sort sort = Sort.by(
                 filter.getSortDirection().equalsIgnoreCase("ASC") ?
@@ -77,25 +99,69 @@ public class EventsController {
                 sort
         );
 
-        // Применяем фильтры и возвращаем результат
-        Page<Event> events = eventsService.findAll(
-                EventSpecification.withFilters(filter),
-                pageRequest
-        );
+        // Применяем фильтры и возвращаем результат; при поиске сначала по релевантности
+        return respond(eventsService.findCards(
+                EventSpecification.withFilters(filter).and(EventSpecification.rankedBySearch(filter)), pageRequest), envelope);
+    }
+
+    @GetMapping("/discover")
+    @Operation(summary = "Discover upcoming joinable events",
+            description = "Предстоящие OPEN / CONFIRMED ивенты из индекса в памяти. sortBy — dateTime или price")
+    public ResponseEntity<?> discoverEvents(
+            @RequestParam(required = false) Long placeId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String eventType,
+            @RequestParam(required = false) Double priceMin,
+            @RequestParam(required = false) Double priceMax,
+            @RequestParam(required = false) Integer availableSpots,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "dateTime") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(required = false) String envelope) {
+
+        // Ответ не должен зависеть от того, собран ли индекс: параметры, которые индекс не поддерживает, отклоняются
+        if (!EventDiscoveryIndex.SORT_PROPERTIES.contains(sortBy)) {
+            throw new EventValidationException("invalid_sort", "sortBy must be one of " + EventDiscoveryIndex.SORT_PROPERTIES);
+        }
+        if (status != null && !status.isEmpty()
+                && !EventDiscoveryIndex.INDEXED_STATUSES.contains(EventSpecification.parseStatus(status))) {
+            throw new EventValidationException("invalid_status", "status must be one of " + EventDiscoveryIndex.INDEXED_STATUSES);
+        }
 
-        return ResponseEntity.ok(events.map(eventsService::convertToDTO));
+        EventFilterDTO filter = new EventFilterDTO();
+        filter.setPlaceId(placeId != null ? placeId.toString() : null);
+        filter.setDate(date);
+        filter.setStatus(status);
+        filter.setEventType(eventType);
+        filter.setPriceMin(priceMin);
+        filter.setPriceMax(priceMax);
+        filter.setAvailableSpots(availableSpots);
+
+        // Равные значения — по eventId в том же направлении, как в индексе
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortBy, "eventId");
+        return respond(eventsService.discoverEvents(filter, PageRequest.of(page, size, sort)), envelope);
     }
 
     @GetMapping("/place/{placeId}")
-    @Operation(summary = "Get all events for a place with optional date filtering")
-    public ResponseEntity<Page<EventDTO>> getAllEvents(
+    @Operation(summary = "Get all events for a place with optional date filtering",
+            description = "С cursor (пустой для первой страницы) — keyset-срез по (dateTime, eventId) DESC без подсчёта total")
+    public ResponseEntity<?> getAllEvents(
             @PathVariable Long placeId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "dateTime,desc") String[] sort) {
+            @RequestParam(defaultValue = "dateTime,desc") String[] sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String envelope) {
         
+        if (cursor != null) {
+            return respond(eventsService.getAllEventsSlice(placeId, startDate, endDate, cursor, size), envelope);
+        }
+
         List<Sort.Order> orders = new ArrayList<>();
         if (sort[0].contains(",")) {
             // will sort more than 2 fields
@@ -113,26 +179,36 @@ public class EventsController {
         }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(orders));
-        return ResponseEntity.ok(eventsService.getAllEvents(placeId, startDate, endDate, pageable));
+        return respond(eventsService.getAllEvents(placeId, startDate, endDate, pageable), envelope);
     }
 
-    @Operation(summary = "Получить события по городу")
+    @Operation(summary = "Получить события по городу",
+            description = "cityId — предстоящие ивенты всех площадок города. placeId — прежнее поведение, ивенты одной площадки")
     @GetMapping("/city")
-    public ResponseEntity<Page<EventDTO>> getAllEventsByCity(
-            @RequestParam Long placeId,
+    public ResponseEntity<?> getAllEventsByCity(
+            @RequestParam(required = false) Integer cityId,
+            @RequestParam(required = false) Long placeId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String envelope,
             @RequestHeader(defaultValue = "ru") String language) {
         PageRequest pageRequest = PageRequest.of(page, size);
-        return ResponseEntity.ok(eventsService.getAllEventsByCity(placeId, pageRequest));
+        if (cityId != null) {
+            return respond(eventsService.getCityEvents(cityId, pageRequest), envelope);
+        }
+        if (placeId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return respond(eventsService.getAllEventsByCity(placeId, pageRequest), envelope);
     }
 
     @Operation(summary = "Получить событие по ID")
     @GetMapping("/{eventId}")
     public ResponseEntity<EventDTO> getEventById(
             @PathVariable Long eventId,
+            @RequestParam(required = false) String fields,
             @RequestHeader(defaultValue = "ru") String language) {
-        return ResponseEntity.ok(eventsService.getEventById(eventId, language));
+        return ResponseEntity.ok(eventsService.getEventById(eventId, language, EventFields.parse(fields)));
     }
 
     @Operation(summary = "Присоединиться к событию")
@@ -158,6 +234,7 @@ public class EventsController {
     @GetMapping("/today")
     @Operation(summary = "Получить события на сегодня")
     public ResponseEntity<List<EventDTO>> getEventsForToday(
+            @RequestParam(required = false) String fields,
             @RequestHeader(defaultValue = "ru") String language) {
         List<Event> events = eventsService.getEventsForToday(java.time.LocalDate.now());
         if (events.isEmpty()) {
@@ -165,9 +242,7 @@ public class EventsController {
             return ResponseEntity.ok(List.of());
         }
         
-        List<EventDTO> eventDTOs = events.stream()
-                .map(eventsService::convertToDTO)
-                .collect(Collectors.toList());
+        List<EventDTO> eventDTOs = eventsService.convertToDTOs(events, EventFields.parse(fields));
         log.info("Found {} events for today", eventDTOs.size());
         return ResponseEntity.ok(eventDTOs);
     }
@@ -185,17 +260,19 @@ public class EventsController {
     @GetMapping("/last-completed")
     public ResponseEntity<List<EventDTO>> getLastCompletedEvents(
             @RequestParam Long userId,
+            @RequestParam(required = false) String fields,
             @RequestHeader(value = "language", defaultValue = "ru") String lang) {
         log.info("GET /last-completed request received for user {}", userId);
-        return ResponseEntity.ok(eventsService.getLastCompletedEventsForUser(userId));
+        return ResponseEntity.ok(eventsService.getLastCompletedEventsForUser(userId, EventFields.parse(fields)));
     }
 
     @GetMapping("/user-activity-events")
     public ResponseEntity<List<EventDTO>> getUserActivityEvents(
             @RequestParam Long userId,
+            @RequestParam(required = false) String fields,
             @RequestHeader(value = "language", defaultValue = "ru") String lang) {
         log.info("GET /last-completed request received for user {}", userId);
-        return ResponseEntity.ok(eventsService.getUserActivityEvents(userId));
+        return ResponseEntity.ok(eventsService.getUserActivityEvents(userId, EventFields.parse(fields)));
     }
 
     @Operation(summary = "Получить доступность событий на 30 дней")
@@ -278,9 +355,10 @@ public class EventsController {
 
     @GetMapping("/current-in-progress")
     @Operation(summary = "Get current IN_PROGRESS event for user")
-    public ResponseEntity<EventDTO> getCurrentInProgressEvent(@RequestParam Long userId) {
+    public ResponseEntity<EventDTO> getCurrentInProgressEvent(@RequestParam Long userId,
+                                                              @RequestParam(required = false) String fields) {
         log.info("GET /current-in-progress request received for user {}", userId);
-        EventDTO currentEvent = eventsService.getCurrentInProgressEventForUser(userId);
+        EventDTO currentEvent = eventsService.getCurrentInProgressEventForUser(userId, EventFields.parse(fields));
         if (currentEvent == null) {
             return ResponseEntity.noContent().build();
         }
@@ -289,9 +367,10 @@ public class EventsController {
 
     @GetMapping("/events-for-today")
     @Operation(summary = "Get all events for today for user")
-    public ResponseEntity<List<EventDTO>> getEventsForToday(@RequestParam Long userId) {
+    public ResponseEntity<List<EventDTO>> getEventsForToday(@RequestParam Long userId,
+                                                            @RequestParam(required = false) String fields) {
         log.info("GET /events-for-today request received for user {}", userId);
-        List<EventDTO> todayEvents = eventsService.getEventsForToday(userId);
+        List<EventDTO> todayEvents = eventsService.getEventsForToday(userId, EventFields.parse(fields));
         return ResponseEntity.ok(todayEvents);
     }
 
@@ -330,7 +409,7 @@ public class EventsController {
     @GetMapping("/organization/{placeId}/events")
     @Operation(summary = "Get organization events with status filtering")
     @ApiResponse(responseCode = "200", description = "Events retrieved successfully")
-    public ResponseEntity<Page<EventDTO>> getOrganizationEvents(
+    public ResponseEntity<Page<EventCardDTO>> getOrganizationEvents(
             @PathVariable Long placeId,
             @RequestParam(required = false) List<EventStatus> statuses,
             @RequestParam(defaultValue = "0") int page,
@@ -356,8 +435,17 @@ public class EventsController {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(orders));
         
-        Page<EventDTO> events = eventsService.getOrganizationEvents(placeId, statuses, pageable);
+        Page<EventCardDTO> events = eventsService.getOrganizationEvents(placeId, statuses, pageable);
         
         return ResponseEntity.ok(events);
     }
-}
\ No newline at end of file
+
+    // envelope=compact — компактная обёртка {items, nextCursor, hasMore} вместо JSON Page / среза
+    private static ResponseEntity<?> respond(Page<EventCardDTO> page, String envelope) {
+        return ResponseEntity.ok(PageEnvelope.isCompact(envelope) ? PageEnvelope.of(page) : page);
+    }
+
+    private static ResponseEntity<?> respond(EventSliceDTO slice, String envelope) {
+        return ResponseEntity.ok(PageEnvelope.isCompact(envelope) ? PageEnvelope.of(slice) : slice);
+    }
+}
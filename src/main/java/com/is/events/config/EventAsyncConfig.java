@@ -0,0 +1,70 @@
+package com.is.events.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Пулы, на которых EventOutboxRelay доставляет сообщения outbox потребителям,
+ * и отдельный пул push о новых сообщениях чата (ChatPushDispatcher).
+ * Чат и WebSocket — быстрые внутренние операции, SMTP и FCM — внешние и медленные,
+ * поэтому у них раздельные пулы и медленная доставка не задерживает realtime-обновления.
+ * Разовые фоновые задачи (@Async) указывают пул явно: пулов несколько, пула по умолчанию нет.
+ */
+@Configuration
+@EnableAsync
+public class EventAsyncConfig {
+
+    @Value("${app.events.realtime-pool-size:2}")
+    private int realtimePoolSize;
+
+    @Value("${app.events.delivery-pool-size:4}")
+    private int deliveryPoolSize;
+
+    @Value("${app.chat.push-pool-size:2}")
+    private int chatPushPoolSize;
+
+    @Value("${app.events.side-effects-queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor eventRealtimeExecutor() {
+        return executor(realtimePoolSize, "event-realtime-");
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor eventDeliveryExecutor() {
+        return executor(deliveryPoolSize, "event-delivery-");
+    }
+
+    // Задачи ставит единственный поток записи чата: при переполнении отказ (AbortPolicy), а не выполнение на нём
+    @Bean
+    public ThreadPoolTaskExecutor chatPushExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(chatPushPoolSize);
+        executor.setMaxPoolSize(chatPushPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chat-push-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // При переполнении очереди задача выполняется в вызывающем потоке, уведомления не теряются
+    private ThreadPoolTaskExecutor executor(int poolSize, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
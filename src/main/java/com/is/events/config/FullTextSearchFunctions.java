@@ -0,0 +1,22 @@
+package com.is.events.config;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.BooleanType;
+import org.hibernate.type.DoubleType;
+
+/**
+ * Функции Postgres FTS для Criteria API (подключается через hibernate.metadata_builder_contributor):
+ * fts_match(vector, config, text) и fts_rank(vector, config, text).
+ */
+public class FullTextSearchFunctions implements MetadataBuilderContributor {
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction("fts_match", new SQLFunctionTemplate(BooleanType.INSTANCE,
+                "(?1 @@ plainto_tsquery(cast(?2 as regconfig), ?3))"));
+        metadataBuilder.applySqlFunction("fts_rank", new SQLFunctionTemplate(DoubleType.INSTANCE,
+                "ts_rank(?1, plainto_tsquery(cast(?2 as regconfig), ?3))"));
+    }
+}
@@ -1,9 +1,11 @@
 package com.is.events.controller;
 
+import com.is.events.exception.ChatBusyException;
 import com.is.events.model.chat.ChatMessageDTO;
 import com.is.events.model.chat.ChatMessageRequest;
 import com.is.events.model.chat.ChatMessagesRequest;
 import com.is.events.model.chat.EventMessage;
+import com.is.events.model.chat.MessageReaction;
 import com.is.events.service.ChatService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -11,18 +13,24 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequiredArgsConstructor
@@ -32,6 +40,10 @@ import java.util.List;
 public class ChatController {
     private final ChatService chatService;
 
+    // Разрешённые реакции через запятую; пусто — любая непустая строка до MessageReaction.MAX_LENGTH символов
+    @Value("${app.chat.reactions.allowed:}")
+    private Set<String> allowedReactions;
+
     @MessageMapping("/chat.send/{eventId}")
     @SendTo("/topic/chat/{eventId}")
     public ChatMessageDTO sendMessage(@Payload ChatMessageRequest request,
@@ -44,6 +56,13 @@ public class ChatController {
         return chatService.sendMessage(eventId, userId, request, accessToken, refreshToken, lang);
     }
 
+    // Переполненная очередь записи: по HTTP это 503 (ChatBusyException), отправителю по STOMP — ошибка в /user/queue/errors
+    @MessageExceptionHandler(ChatBusyException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public Map<String, Object> handleChatBusy(ChatBusyException e) {
+        return Map.of("status", HttpStatus.SERVICE_UNAVAILABLE.value(), "error", "CHAT_BUSY", "message", e.getMessage());
+    }
+
     @GetMapping("/{eventId}/messages")
     @ApiOperation(value = "Get messages for an event", notes = "Retrieves paginated messages for a specific event")
     @ApiResponses(value = {
@@ -111,6 +130,25 @@ public class ChatController {
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("/{eventId}/read")
+    @ApiOperation(value = "Mark chat as read", notes = "Moves the user's read watermark up to the given message")
+    public ResponseEntity<Void> markReadUpTo(
+            @PathVariable Long eventId,
+            @RequestParam Long upTo,
+            @RequestHeader("userId") Long userId) {
+        log.info("Marking chat of event {} as read up to message {} by user {}", eventId, upTo, userId);
+        chatService.markReadUpTo(eventId, userId, upTo);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/{eventId}/unread")
+    @ApiOperation(value = "Get unread count", notes = "Counts messages after the user's read watermark")
+    public ResponseEntity<Long> getUnreadCount(
+            @PathVariable Long eventId,
+            @RequestHeader("userId") Long userId) {
+        return ResponseEntity.ok(chatService.getUnreadCount(eventId, userId));
+    }
+
     @GetMapping("/{eventId}/search")
     @ApiOperation(value = "Search messages", notes = "Searches for messages containing the specified query")
     public ResponseEntity<Page<ChatMessageDTO>> searchMessages(
@@ -128,6 +166,10 @@ public class ChatController {
             @PathVariable Long messageId,
             @RequestHeader("userId") Long userId,
             @RequestParam String reactionType) {
+        validateReaction(reactionType);
+        if (!allowedReactions.isEmpty() && !allowedReactions.contains(reactionType)) {
+            throw new IllegalArgumentException("Reaction is not allowed: " + reactionType);
+        }
         log.info("Adding reaction {} to message {} by user {}", reactionType, messageId, userId);
         chatService.addReaction(messageId, userId, reactionType);
         return ResponseEntity.ok().build();
@@ -138,6 +180,8 @@ public class ChatController {
             @PathVariable Long messageId,
             @RequestHeader("userId") Long userId,
             @RequestParam String reactionType) {
+        // Без проверки по списку: снять можно и реакцию, убранную из app.chat.reactions.allowed
+        validateReaction(reactionType);
         chatService.removeReaction(messageId, userId, reactionType);
         return ResponseEntity.ok().build();
     }
@@ -161,4 +205,11 @@ public class ChatController {
         }
         return messages;
     }
-} 
\ No newline at end of file
+
+    // Ошибка валидации — 400 через GlobalExceptionHandler
+    private void validateReaction(String reactionType) {
+        if (reactionType.isBlank() || reactionType.length() > MessageReaction.MAX_LENGTH) {
+            throw new IllegalArgumentException("Reaction must be 1.." + MessageReaction.MAX_LENGTH + " characters long");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.is.events.dto;
+
+import com.is.events.model.enums.EventStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Карточка ивента для лент: только колонки events, без jsonb-документов и ростера участников.
+ * Собирается конструктор-выражением прямо в запросе; полный EventDTO — через /events/{eventId}.
+ */
+public record EventCardDTO(
+        Long eventId,
+        String title,
+        LocalDateTime dateTime,
+        EventStatus status,
+        Long placeId,
+        String eventType,
+        Double price,
+        Integer participantsCount,
+        Integer maxParticipants) {
+
+    // JPQL-выражение для SELECT new ...; алиас сущности — e
+    public static final String SELECT = """
+            SELECT new com.is.events.dto.EventCardDTO(
+                e.eventId, e.title, e.dateTime, e.status, e.placeId,
+                e.sportType, e.price, e.participantsSize, e.maxParticipants)
+            """;
+}
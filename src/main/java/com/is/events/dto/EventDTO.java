@@ -1,5 +1,6 @@
 package com.is.events.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -9,11 +10,15 @@ import java.util.List;
 public class EventDTO {
     private Long eventId;
     private String title;
+    // Секции, не запрошенные в fields, остаются null и не сериализуются
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String description;
     private LocalDateTime dateTime;
     private String status;
     private Long placeId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private OrganizerDTO organizer;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<ParticipantDTO> participants = new ArrayList<>();
 
     // Дополнительные поля для отображения
@@ -21,9 +26,11 @@ public class EventDTO {
     private boolean isJoinable;
     private int maxParticipants;
     private String eventType;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String location;
     private Double price;
     private boolean isFirstEventCreation;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String additionalInfo;
 
 
@@ -0,0 +1,49 @@
+package com.is.events.dto;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Секции EventDTO, запрошенные параметром fields (например, fields=participants,organizer).
+ * Базовые поля ивента отдаются всегда; без параметра собираются все секции, как раньше.
+ */
+public final class EventFields {
+
+    public enum Section {
+        // Ростер участников с аватарами
+        PARTICIPANTS,
+        // Организатор: контакты, аватар, флаг первого ивента
+        ORGANIZER,
+        // Описание, локация, доп. информация
+        DETAILS
+    }
+
+    public static final EventFields ALL = new EventFields(EnumSet.allOf(Section.class));
+
+    private final Set<Section> sections;
+
+    private EventFields(Set<Section> sections) {
+        this.sections = Collections.unmodifiableSet(sections);
+    }
+
+    // Неизвестные имена секций игнорируются
+    public static EventFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<Section> sections = EnumSet.noneOf(Section.class);
+        for (String name : fields.split(",")) {
+            try {
+                sections.add(Section.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return new EventFields(sections);
+    }
+
+    public boolean includes(Section section) {
+        return sections.contains(section);
+    }
+}
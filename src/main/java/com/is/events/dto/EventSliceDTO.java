@@ -0,0 +1,20 @@
+package com.is.events.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Ответ keyset-пагинации: без totalElements / totalPages, следующая страница — по nextCursor
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSliceDTO {
+    private List<EventCardDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
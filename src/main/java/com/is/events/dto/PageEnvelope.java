@@ -0,0 +1,27 @@
+package com.is.events.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Компактная обёртка ленты (envelope=compact) вместо JSON Page / EventSliceDTO.
+ * nextCursor — keyset-курсор для cursor-режима, для постраничных лент — номер следующей страницы.
+ */
+public record PageEnvelope<T>(List<T> items, String nextCursor, boolean hasMore) {
+
+    public static final String COMPACT = "compact";
+
+    public static <T> PageEnvelope<T> of(Page<T> page) {
+        return new PageEnvelope<>(page.getContent(),
+                page.hasNext() ? String.valueOf(page.getNumber() + 1) : null, page.hasNext());
+    }
+
+    public static PageEnvelope<EventCardDTO> of(EventSliceDTO slice) {
+        return new PageEnvelope<>(slice.getContent(), slice.getNextCursor(), slice.isHasNext());
+    }
+
+    public static boolean isCompact(String envelope) {
+        return COMPACT.equalsIgnoreCase(envelope);
+    }
+}
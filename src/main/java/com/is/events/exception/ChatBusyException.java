@@ -0,0 +1,12 @@
+package com.is.events.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Очередь записи чата переполнена — клиенту стоит повторить отправку позже
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ChatBusyException extends RuntimeException {
+    public ChatBusyException(String message) {
+        super(message);
+    }
+}
@@ -51,24 +51,29 @@ public class CurrentParticipants implements Serializable {
         }
     }
 
-    public void addParticipant(Long id, String name) {
+    public Participant addParticipant(Long id, String name) {
         if (participants == null) {
             participants = new ArrayList<>();
         }
-        participants.add(new Participant(id, name, "ACTIVE", LocalDateTime.now()));
+        Participant participant = new Participant(id, name, "ACTIVE", LocalDateTime.now());
+        participants.add(participant);
         size = participants.size();
+        return participant;
     }
 
-    public void checkInParticipant(Long participantId) {
-        if (participants != null) {
-            participants.stream()
-                    .filter(p -> p.getParticipantId().equals(participantId))
-                    .findFirst()
-                    .ifPresent(participant -> {
-                        participant.setStatus("PRESENT");
-                        participant.setCheckedInAt(LocalDateTime.now());
-                    });
+    public Participant checkInParticipant(Long participantId) {
+        if (participants == null) {
+            return null;
+        }
+        Participant participant = participants.stream()
+                .filter(p -> p.getParticipantId().equals(participantId))
+                .findFirst()
+                .orElse(null);
+        if (participant != null) {
+            participant.setStatus("PRESENT");
+            participant.setCheckedInAt(LocalDateTime.now());
         }
+        return participant;
     }
 
     public boolean hasParticipant(Long participantId) {
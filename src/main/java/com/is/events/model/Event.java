@@ -1,5 +1,6 @@
 package com.is.events.model;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.vladmihalcea.hibernate.type.json.JsonType;
 import org.hibernate.annotations.Type;
@@ -17,7 +18,14 @@ import java.util.List;
         @TypeDef(name = "json", typeClass = JsonType.class)
 })
 @Entity
-@Table(name = "events", schema = "events")
+@Table(name = "events", schema = "events", indexes = {
+        @Index(name = "idx_events_organizer_id", columnList = "organizer_id, date_time"),
+        @Index(name = "idx_events_sport_id", columnList = "sport_id, date_time"),
+        @Index(name = "idx_events_sport_type", columnList = "sport_type, date_time"),
+        @Index(name = "idx_events_price", columnList = "price"),
+        @Index(name = "idx_events_place_date_id", columnList = "place_id, date_time, event_id"),
+        @Index(name = "idx_events_city_status_date", columnList = "city_id, status, date_time")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -81,12 +89,59 @@ public class Event {
 
     private boolean isFirstTimeEventCreation;
 
+    // Денормализованные поля из jsonb для индексной фильтрации, заполняются в onCreate()
+    @JsonIgnore
+    @Column(name = "organizer_id")
+    private Long organizerId;
+
+    @JsonIgnore
+    @Column(name = "sport_id")
+    private Long sportId;
+
+    @JsonIgnore
+    @Column(name = "sport_type")
+    private String sportType;
+
+    @JsonIgnore
+    @Column(name = "price")
+    private Double price;
+
+    @JsonIgnore
+    @Column(name = "max_participants")
+    private Integer maxParticipants;
+
+    @JsonIgnore
+    @Column(name = "participants_size")
+    private Integer participantsSize;
+
+    // Город площадки (locations.places.current_location_city_id), выставляется при создании
+    @JsonIgnore
+    @Column(name = "city_id")
+    private Integer cityId;
+
     @PrePersist
     @PreUpdate
     protected void onCreate() {
         if (lastStatusChange == null) {
             lastStatusChange = LocalDateTime.now();
         }
+        syncDenormalizedColumns();
+    }
+
+    private void syncDenormalizedColumns() {
+        organizerId = organizerEvent != null ? organizerEvent.getOrganizerId() : null;
+        if (sportEvent != null) {
+            sportId = sportEvent.getSportId();
+            sportType = sportEvent.getSportType();
+            price = sportEvent.getPrice();
+            maxParticipants = sportEvent.getMaxParticipants() != null ? sportEvent.getMaxParticipants() : 0;
+        } else {
+            sportId = null;
+            sportType = null;
+            price = null;
+            maxParticipants = 0;
+        }
+        participantsSize = currentParticipants != null ? currentParticipants.getSize() : 0;
     }
 
     public boolean canTransitionTo(EventStatus newStatus) {
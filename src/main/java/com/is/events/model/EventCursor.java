@@ -0,0 +1,43 @@
+package com.is.events.model;
+
+import com.is.events.dto.EventCardDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор для keyset-пагинации по (date_time, event_id).
+ * Клиент получает его в nextCursor и передаёт обратно как есть; пустая строка — первая страница.
+ */
+public record EventCursor(LocalDateTime dateTime, Long eventId) {
+
+    // Верхняя граница для первой страницы при сортировке по убыванию (в пределах диапазона timestamp Postgres)
+    public static final EventCursor DESC_START = new EventCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    public static final EventCursor ASC_START = new EventCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    public static EventCursor of(EventCardDTO card) {
+        return new EventCursor(card.dateTime(), card.eventId());
+    }
+
+    // null — курсор не разобран (пустой или битый)
+    public static EventCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new EventCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        String raw = dateTime + "|" + eventId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
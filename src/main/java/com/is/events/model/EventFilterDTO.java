@@ -25,6 +25,8 @@ public class EventFilterDTO {
     private Double priceMax;
     private Integer availableSpots;
     private String search;
+    // Язык запроса (заголовок language), определяет конфигурацию полнотекстового поиска
+    private String searchLanguage;
 
     // Параметры пагинации
     private int page = 0;
@@ -32,6 +34,10 @@ public class EventFilterDTO {
     private String sortBy = "dateTime";
     private String sortDirection = "DESC";
 
+    public boolean hasSearch() {
+        return search != null && !search.isBlank();
+    }
+
     public LocalDateTime getDateTimeFrom() {
         if (date != null) {
             return date.atStartOfDay();
@@ -0,0 +1,45 @@
+package com.is.events.model;
+
+import com.is.events.model.enums.EventLifecycleType;
+import com.is.events.model.enums.EventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Изменение ивента (создание, вход/выход участника, check-in, смена статуса).
+ * Публикуется через ApplicationEventPublisher после сохранения Event, внутри той же транзакции,
+ * чтобы производные структуры (таймлайн, счётчики, кэши) обновлялись вместе с ивентом.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EventLifecycleEvent {
+    private final Event event;
+    private final EventLifecycleType type;
+    // Пользователь, которого касается изменение (для join/leave/check-in), иначе null
+    private final Long userId;
+    // Статус до изменения, для STATUS_CHANGED
+    private final EventStatus previousStatus;
+
+    public static EventLifecycleEvent created(Event event) {
+        return new EventLifecycleEvent(event, EventLifecycleType.CREATED,
+                event.getOrganizerEvent() != null ? event.getOrganizerEvent().getOrganizerId() : null, null);
+    }
+
+    public static EventLifecycleEvent participantJoined(Event event, Long userId) {
+        return new EventLifecycleEvent(event, EventLifecycleType.PARTICIPANT_JOINED, userId, null);
+    }
+
+    public static EventLifecycleEvent participantLeft(Event event, Long userId) {
+        return new EventLifecycleEvent(event, EventLifecycleType.PARTICIPANT_LEFT, userId, null);
+    }
+
+    public static EventLifecycleEvent checkedIn(Event event, Long userId) {
+        return new EventLifecycleEvent(event, EventLifecycleType.PARTICIPANT_CHECKED_IN, userId, null);
+    }
+
+    public static EventLifecycleEvent statusChanged(Event event, EventStatus previousStatus) {
+        return new EventLifecycleEvent(event, EventLifecycleType.STATUS_CHANGED, null, previousStatus);
+    }
+}
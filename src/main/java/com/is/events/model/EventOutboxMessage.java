@@ -0,0 +1,113 @@
+package com.is.events.model;
+
+import com.is.events.model.enums.EventMessageType;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.model.enums.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Сообщение outbox: побочный эффект изменения ивента, записанный в той же транзакции.
+ * Доставляется EventOutboxRelay всем подходящим потребителям хотя бы один раз, по порядку внутри ивента.
+ */
+@Entity
+@Table(name = "event_outbox", schema = "events")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_type", nullable = false, length = 40)
+    private EventMessageType messageType;
+
+    @Column(name = "participant_id")
+    private Long participantId;
+
+    @Column(name = "participant_name")
+    private String participantName;
+
+    @Column(name = "lang", length = 8)
+    private String lang;
+
+    // Снимок перехода статуса на момент записи; previous_status пуст, если сообщение не о смене статуса
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 32)
+    private EventStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", length = 32)
+    private EventStatus newStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "delivered_to")
+    private String deliveredTo;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Аренда релея: до locked_until сообщение доставляет инстанс с этим claim_token
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    public Set<String> deliveredConsumers() {
+        Set<String> consumers = new LinkedHashSet<>();
+        if (deliveredTo != null && !deliveredTo.isEmpty()) {
+            consumers.addAll(Arrays.asList(deliveredTo.split(",")));
+        }
+        return consumers;
+    }
+
+    public void claim(String token, LocalDateTime until) {
+        claimToken = token;
+        lockedUntil = until;
+    }
+
+    public boolean isClaimedBy(String token) {
+        return token.equals(claimToken);
+    }
+
+    public void release() {
+        claimToken = null;
+        lockedUntil = null;
+    }
+
+    public void markDelivered(String consumer) {
+        Set<String> consumers = deliveredConsumers();
+        consumers.add(consumer);
+        deliveredTo = String.join(",", consumers);
+    }
+}
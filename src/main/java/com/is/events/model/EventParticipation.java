@@ -0,0 +1,38 @@
+package com.is.events.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Реляционная копия участников из current_participants (jsonb).
+ * Пишется вместе с jsonb при join/leave/check-in, нужна для индексных выборок по user_id.
+ */
+@Entity
+@Table(name = "event_participants", schema = "events",
+        indexes = @Index(name = "idx_event_participants_user_event", columnList = "user_id, event_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(EventParticipationId.class)
+public class EventParticipation {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+
+    @Column(name = "checked_in_at")
+    private LocalDateTime checkedInAt;
+}
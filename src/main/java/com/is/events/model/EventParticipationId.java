@@ -0,0 +1,15 @@
+package com.is.events.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventParticipationId implements Serializable {
+    private Long eventId;
+    private Long userId;
+}
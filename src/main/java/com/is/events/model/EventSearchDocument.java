@@ -0,0 +1,26 @@
+package com.is.events.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+
+/**
+ * Только для чтения: search_vector ивента (поддерживается триггером V10).
+ * Отдельная сущность на той же таблице, чтобы загрузка Event не тянула tsvector;
+ * в Criteria подключается вторым корнем по event_id (см. EventSpecification).
+ */
+@Entity
+@Immutable
+@Table(name = "events", schema = "events")
+@Getter
+@NoArgsConstructor
+public class EventSearchDocument {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "search_vector", columnDefinition = "tsvector", insertable = false, updatable = false)
+    private String searchVector;
+}
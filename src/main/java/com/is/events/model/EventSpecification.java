@@ -1,10 +1,17 @@
 package com.is.events.model;
 
+import com.is.events.exception.EventValidationException;
+import com.is.events.model.enums.EventStatus;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Expression;
 import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class EventSpecification {
@@ -18,99 +25,136 @@ public class EventSpecification {
                 predicates.add(criteriaBuilder.equal(root.get("placeId"), filter.getPlaceId()));
             }
 
-            // Фильтр по датам
-            if (filter.getDateFrom() != null) {
+            // Фильтр по датам: date или dateFrom / dateTo, как в EventDiscoveryIndex
+            if (filter.getDateTimeFrom() != null) {
                 predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dateTime"), filter.getDateTimeFrom()));
             }
-            if (filter.getDateTo() != null) {
+            if (filter.getDateTimeTo() != null) {
                 predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("dateTime"), filter.getDateTimeTo()));
             }
 
             // Фильтр по статусу
             if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), filter.getStatus()));
+                predicates.add(criteriaBuilder.equal(root.get("status"), parseStatus(filter.getStatus())));
             }
 
             // Фильтр по типу события
             if (filter.getEventType() != null && !filter.getEventType().isEmpty()) {
-                Expression<String> sportType = criteriaBuilder.function(
-                        "jsonb_extract_path_text",
-                        String.class,
-                        root.get("sportEvent"),
-                        criteriaBuilder.literal("sportType")
-                );
-                predicates.add(criteriaBuilder.equal(sportType, filter.getEventType()));
+                predicates.add(criteriaBuilder.equal(root.get("sportType"), filter.getEventType()));
             }
 
-            // Фильтр по цене
+            // Фильтр по цене (событие без цены считается бесплатным)
             if (filter.getPriceMin() != null) {
-                Expression<Double> price = criteriaBuilder.function(
-                        "jsonb_extract_path_text",
-                        Double.class,
-                        root.get("sportEvent"),
-                        criteriaBuilder.literal("price")
-                );
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(
-                        criteriaBuilder.coalesce(price, 0.0),
-                        filter.getPriceMin()
-                ));
+                Expression<Double> price = root.get("price");
+                Predicate priceFrom = criteriaBuilder.greaterThanOrEqualTo(price, filter.getPriceMin());
+                predicates.add(filter.getPriceMin() <= 0
+                        ? criteriaBuilder.or(priceFrom, criteriaBuilder.isNull(price))
+                        : priceFrom);
             }
             if (filter.getPriceMax() != null) {
-                Expression<Double> price = criteriaBuilder.function(
-                        "jsonb_extract_path_text",
-                        Double.class,
-                        root.get("sportEvent"),
-                        criteriaBuilder.literal("price")
-                );
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(
-                        criteriaBuilder.coalesce(price, Double.MAX_VALUE),
-                        filter.getPriceMax()
-                ));
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), filter.getPriceMax()));
             }
 
-            // Фильтр по количеству свободных мест
+            // Фильтр по количеству свободных мест (совпадает с индексом idx_events_free_spots)
             if (filter.getAvailableSpots() != null) {
-                Expression<Integer> maxParticipants = criteriaBuilder.function(
-                        "jsonb_extract_path_text",
-                        Integer.class,
-                        root.get("sportEvent"),
-                        criteriaBuilder.literal("maxParticipants")
-                );
-                Expression<Integer> currentSize = criteriaBuilder.function(
-                        "jsonb_extract_path_text",
-                        Integer.class,
-                        root.get("currentParticipants"),
-                        criteriaBuilder.literal("size")
-                );
                 predicates.add(
                         criteriaBuilder.greaterThanOrEqualTo(
                                 criteriaBuilder.diff(
-                                        criteriaBuilder.coalesce(maxParticipants, 0),
-                                        criteriaBuilder.coalesce(currentSize, 0)
+                                        root.<Integer>get("maxParticipants"),
+                                        root.<Integer>get("participantsSize")
                                 ),
                                 filter.getAvailableSpots()
                         )
                 );
             }
 
-            // Поиск по названию и описанию
-            if (filter.getSearch() != null && !filter.getSearch().isEmpty()) {
-                String searchPattern = "%" + filter.getSearch().toLowerCase() + "%";
-                Expression<String> title = criteriaBuilder.function(
-                        "jsonb_extract_path_text",
-                        String.class,
-                        root.get("sportEvent"),
-                        criteriaBuilder.literal("title")
-                );
-                predicates.add(
-                        criteriaBuilder.or(
-                                criteriaBuilder.like(criteriaBuilder.lower(title), searchPattern),
-                                criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), searchPattern)
-                        )
-                );
+            // Полнотекстовый поиск по search_vector (GIN-индекс idx_events_search_vector)
+            if (filter.hasSearch()) {
+                Root<EventSearchDocument> document = searchDocument(root, query, criteriaBuilder, predicates);
+                predicates.add(criteriaBuilder.isTrue(searchFunction(criteriaBuilder, document, "fts_match", Boolean.class, filter)));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
-}
\ No newline at end of file
+
+    // Статус из запроса без учёта регистра, как в EventDiscoveryIndex
+    public static EventStatus parseStatus(String status) {
+        try {
+            return EventStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new EventValidationException("invalid_status", "Unknown event status: " + status);
+        }
+    }
+
+    // Предстоящие ивенты в заданных статусах
+    public static Specification<Event> upcoming(Collection<EventStatus> statuses) {
+        return (root, query, cb) -> cb.and(
+                root.get("status").in(statuses),
+                cb.greaterThan(root.get("dateTime"), LocalDateTime.now()));
+    }
+
+    // Сортировка по релевантности ts_rank перед сортировкой страницы; для count-запроса не применяется
+    public static Specification<Event> rankedBySearch(EventFilterDTO filter) {
+        return (root, query, cb) -> {
+            if (filter.hasSearch() && !Long.class.equals(query.getResultType())) {
+                List<Predicate> join = new ArrayList<>();
+                Root<EventSearchDocument> document = searchDocument(root, query, cb, join);
+                query.orderBy(cb.desc(searchFunction(cb, document, "fts_rank", Double.class, filter)));
+                return join.isEmpty() ? null : cb.and(join.toArray(new Predicate[0]));
+            }
+            return null;
+        };
+    }
+
+    // Конфигурация FTS по языку запроса: для узбекского словаря в Postgres нет, используем simple
+    public static String searchConfig(String language) {
+        if (language == null) {
+            return "simple";
+        }
+        return switch (language.toLowerCase()) {
+            case "ru" -> "russian";
+            case "en" -> "english";
+            default -> "simple";
+        };
+    }
+
+    // Корень EventSearchDocument по event_id, общий для фильтра и сортировки одного запроса;
+    // условие соединения добавляется в predicates только при создании корня
+    @SuppressWarnings("unchecked")
+    private static Root<EventSearchDocument> searchDocument(Root<Event> root, CriteriaQuery<?> query,
+                                                            CriteriaBuilder cb, List<Predicate> predicates) {
+        for (Root<?> existing : query.getRoots()) {
+            if (EventSearchDocument.class.equals(existing.getJavaType())) {
+                return (Root<EventSearchDocument>) existing;
+            }
+        }
+        Root<EventSearchDocument> document = query.from(EventSearchDocument.class);
+        predicates.add(cb.equal(document.get("eventId"), root.get("eventId")));
+        return document;
+    }
+
+    private static <T> Expression<T> searchFunction(CriteriaBuilder cb, Root<EventSearchDocument> document, String name,
+                                                    Class<T> type, EventFilterDTO filter) {
+        return cb.function(name, type,
+                document.get("searchVector"),
+                cb.literal(searchConfig(filter.getSearchLanguage())),
+                cb.literal(filter.getSearch().trim()));
+    }
+
+    // Keyset-условие "строго после курсора" в порядке (dateTime, eventId)
+    public static Specification<Event> after(EventCursor cursor, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Expression<LocalDateTime> dateTime = root.get("dateTime");
+            Expression<Long> eventId = root.get("eventId");
+            if (direction == Sort.Direction.ASC) {
+                return cb.or(
+                        cb.greaterThan(dateTime, cursor.dateTime()),
+                        cb.and(cb.equal(dateTime, cursor.dateTime()), cb.greaterThan(eventId, cursor.eventId())));
+            }
+            return cb.or(
+                    cb.lessThan(dateTime, cursor.dateTime()),
+                    cb.and(cb.equal(dateTime, cursor.dateTime()), cb.lessThan(eventId, cursor.eventId())));
+        };
+    }
+}
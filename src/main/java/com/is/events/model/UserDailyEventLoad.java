@@ -0,0 +1,37 @@
+package com.is.events.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Сколько активных ивентов у пользователя на дату: как организатор, как участник и в обеих ролях сразу.
+ * Активные — все статусы, кроме REJECTED, EXPIRED, CANCELLED, COMPLETED (как в прежних COUNT-запросах).
+ */
+@Entity
+@Table(name = "user_daily_event_load", schema = "events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(UserDailyEventLoadId.class)
+public class UserDailyEventLoad {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "load_date")
+    private LocalDate loadDate;
+
+    @Column(name = "as_organizer")
+    private Integer asOrganizer;
+
+    @Column(name = "as_participant")
+    private Integer asParticipant;
+
+    @Column(name = "as_both")
+    private Integer asBoth;
+}
@@ -0,0 +1,36 @@
+package com.is.events.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Счётчики ивентов пользователя для профиля.
+ * Инкрементируются UserEventStatsService по EventLifecycleEvent, пересчитываются целиком через rebuildAll().
+ */
+@Entity
+@Table(name = "user_event_stats", schema = "events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEventStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "events_as_organizer")
+    private Integer eventsAsOrganizer;
+
+    // Только ивенты, где пользователь не организатор
+    @Column(name = "events_as_participant")
+    private Integer eventsAsParticipant;
+
+    @Column(name = "completed_events")
+    private Integer completedEvents;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,38 @@
+package com.is.events.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Таймлайн ивентов пользователя (организатор или участник).
+ * Поддерживается UserEventTimelineService по EventLifecycleEvent, читается по индексу (user_id, date_time).
+ */
+@Entity
+@Table(name = "user_event_timeline", schema = "events",
+        indexes = @Index(name = "idx_user_event_timeline_user_date", columnList = "user_id, date_time"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(UserEventTimelineId.class)
+public class UserEventTimeline {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "role", length = 20, nullable = false)
+    private String role; // ORGANIZER или PARTICIPANT
+
+    @Column(name = "date_time")
+    private LocalDateTime dateTime;
+
+    @Column(name = "status", length = 20)
+    private String status;
+}
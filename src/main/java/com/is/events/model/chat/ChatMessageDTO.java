@@ -31,4 +31,5 @@ public class ChatMessageDTO {
     private String parentMessageSender;
     private LocalDateTime parentMessageSentAt;
     private Map<String, List<Long>> reactions;
+    private Map<String, Integer> reactionCounts;
 } 
\ No newline at end of file
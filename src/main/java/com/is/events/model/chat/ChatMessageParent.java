@@ -0,0 +1,11 @@
+package com.is.events.model.chat;
+
+import java.time.LocalDateTime;
+
+// Цитируемое сообщение: только поля, которые попадают в ChatMessageDTO ответа
+public record ChatMessageParent(Long messageId, String content, String senderName, LocalDateTime sentAt) {
+
+    public static ChatMessageParent of(EventMessage message) {
+        return new ChatMessageParent(message.getMessageId(), message.getContent(), message.getSenderName(), message.getSentAt());
+    }
+}
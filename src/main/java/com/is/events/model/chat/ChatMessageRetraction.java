@@ -0,0 +1,11 @@
+package com.is.events.model.chat;
+
+// Отзыв уже разосланного сообщения, которое не удалось записать в БД (/topic/chat/{eventId})
+public record ChatMessageRetraction(String type, Long messageId, Long eventId) {
+
+    public static final String TYPE = "RETRACTED";
+
+    public static ChatMessageRetraction failed(Long messageId, Long eventId) {
+        return new ChatMessageRetraction(TYPE, messageId, eventId);
+    }
+}
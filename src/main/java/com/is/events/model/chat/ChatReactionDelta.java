@@ -0,0 +1,15 @@
+package com.is.events.model.chat;
+
+// Изменение реакции для /topic/chat/{eventId}: вместо полного ChatMessageDTO только дельта (+1 / -1)
+public record ChatReactionDelta(String type, Long messageId, String reaction, Long userId, int delta) {
+
+    public static final String TYPE = "REACTION";
+
+    public static ChatReactionDelta added(Long messageId, String reaction, Long userId) {
+        return new ChatReactionDelta(TYPE, messageId, reaction, userId, 1);
+    }
+
+    public static ChatReactionDelta removed(Long messageId, String reaction, Long userId) {
+        return new ChatReactionDelta(TYPE, messageId, reaction, userId, -1);
+    }
+}
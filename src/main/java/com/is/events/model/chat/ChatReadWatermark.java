@@ -0,0 +1,38 @@
+package com.is.events.model.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Пользователь прочитал чат ивента до сообщения (last_read_sent_at, last_read_message_id) включительно.
+ * Сравнение по паре: message_id между инстансами не упорядочен во времени (см. ChatWritePipeline).
+ * readBy в ChatMessageDTO выводится из этих строк, read_by jsonb в сообщениях больше не пишется.
+ */
+@Entity
+@Table(name = "chat_read_watermarks", schema = "events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(ChatReadWatermarkId.class)
+public class ChatReadWatermark {
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+
+    @Column(name = "last_read_sent_at", nullable = false)
+    private LocalDateTime lastReadSentAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,9 @@
+package com.is.events.model.chat;
+
+// Отправитель сообщения в чате: имя для отображения и аватар
+public record ChatSender(Long userId, String displayName, String avatarUrl) {
+
+    public static ChatSender unknown(Long userId) {
+        return new ChatSender(userId, "User " + userId, "");
+    }
+}
@@ -0,0 +1,8 @@
+package com.is.events.model.chat;
+
+// Подтверждение записи сообщения в БД, рассылается в /topic/chat/{eventId}/ack после group commit
+public record ChatWriteAck(Long messageId, Long eventId, String status) {
+
+    public static final String PERSISTED = "PERSISTED";
+    public static final String FAILED = "FAILED";
+}
@@ -0,0 +1,38 @@
+package com.is.events.model.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Реакция пользователя на сообщение, одна строка на (сообщение, реакция, пользователь).
+ * reactions в ChatMessageDTO собирается из этих строк, reactions jsonb в сообщениях больше не пишется.
+ */
+@Entity
+@Table(name = "message_reactions", schema = "events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(MessageReactionId.class)
+public class MessageReaction {
+    // Длина колонки reaction
+    public static final int MAX_LENGTH = 64;
+
+    @Id
+    @Column(name = "message_id")
+    private Long messageId;
+
+    @Id
+    @Column(name = "reaction", length = 64)
+    private String reaction;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
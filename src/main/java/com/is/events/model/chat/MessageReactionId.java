@@ -0,0 +1,16 @@
+package com.is.events.model.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageReactionId implements Serializable {
+    private Long messageId;
+    private String reaction;
+    private Long userId;
+}
@@ -0,0 +1,9 @@
+package com.is.events.model.enums;
+
+public enum EventLifecycleType {
+    CREATED,
+    PARTICIPANT_JOINED,
+    PARTICIPANT_LEFT,
+    PARTICIPANT_CHECKED_IN,
+    STATUS_CHANGED
+}
@@ -7,5 +7,6 @@ public enum EventMessageType {
     PARTICIPANT_LEFT,
     EVENT_STARTED,
     EVENT_EXPIRED,
-    PARTICIPANT_CHECKED_IN
+    PARTICIPANT_CHECKED_IN,
+    EVENT_COMPLETED
 } 
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.is.events.model.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    DONE,
+    // Исчерпаны попытки доставки
+    FAILED
+}
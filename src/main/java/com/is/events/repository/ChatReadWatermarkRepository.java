@@ -0,0 +1,57 @@
+package com.is.events.repository;
+
+import com.is.events.model.chat.ChatReadWatermark;
+import com.is.events.model.chat.ChatReadWatermarkId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ChatReadWatermarkRepository extends JpaRepository<ChatReadWatermark, ChatReadWatermarkId> {
+
+    // Водяной знак только растёт по (sent_at, message_id); повторная или более ранняя отметка строку не переписывает
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.chat_read_watermarks (event_id, user_id, last_read_message_id, last_read_sent_at, updated_at)
+            SELECT :eventId, :userId, m.message_id, m.sent_at, now()
+            FROM events.event_messages m
+            WHERE m.message_id = :messageId AND m.event_id = :eventId
+            ON CONFLICT (event_id, user_id) DO UPDATE
+            SET last_read_message_id = EXCLUDED.last_read_message_id,
+                last_read_sent_at = EXCLUDED.last_read_sent_at,
+                updated_at = EXCLUDED.updated_at
+            WHERE (events.chat_read_watermarks.last_read_sent_at, events.chat_read_watermarks.last_read_message_id)
+                < (EXCLUDED.last_read_sent_at, EXCLUDED.last_read_message_id)
+            """, nativeQuery = true)
+    int advance(@Param("eventId") Long eventId, @Param("userId") Long userId, @Param("messageId") Long messageId);
+
+    List<ChatReadWatermark> findByEventId(Long eventId);
+
+    // То же до последнего записанного сообщения ивента — когда отмеченное ещё не дошло до БД
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.chat_read_watermarks (event_id, user_id, last_read_message_id, last_read_sent_at, updated_at)
+            SELECT m.event_id, :userId, m.message_id, m.sent_at, now()
+            FROM events.event_messages m
+            WHERE m.event_id = :eventId AND m.sent_at IS NOT NULL
+            ORDER BY m.sent_at DESC, m.message_id DESC
+            LIMIT 1
+            ON CONFLICT (event_id, user_id) DO UPDATE
+            SET last_read_message_id = EXCLUDED.last_read_message_id,
+                last_read_sent_at = EXCLUDED.last_read_sent_at,
+                updated_at = EXCLUDED.updated_at
+            WHERE (events.chat_read_watermarks.last_read_sent_at, events.chat_read_watermarks.last_read_message_id)
+                < (EXCLUDED.last_read_sent_at, EXCLUDED.last_read_message_id)
+            """, nativeQuery = true)
+    int advanceToLatest(@Param("eventId") Long eventId, @Param("userId") Long userId);
+
+    Optional<ChatReadWatermark> findByEventIdAndUserId(Long eventId, Long userId);
+}
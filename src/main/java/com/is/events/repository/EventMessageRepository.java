@@ -24,6 +24,21 @@ public interface EventMessageRepository extends JpaRepository<EventMessage, Long
 
     Page<EventMessage> findByEventId(Long eventId, Pageable pageable);
 
+    @Query("SELECT m.eventId FROM EventMessage m WHERE m.messageId = :messageId")
+    Long findEventIdByMessageId(@Param("messageId") Long messageId);
+
+    // Непрочитанные после водяного знака по (sent_at, message_id), свои сообщения не считаются (idx_event_messages_event_sent)
+    @Query(value = """
+            SELECT COUNT(*) FROM events.event_messages m
+            WHERE m.event_id = :eventId
+              AND (m.sent_at, m.message_id) > (:afterSentAt, :afterMessageId)
+              AND (m.sender_id IS NULL OR m.sender_id <> :userId)
+            """, nativeQuery = true)
+    long countUnread(@Param("eventId") Long eventId,
+                     @Param("afterSentAt") LocalDateTime afterSentAt,
+                     @Param("afterMessageId") Long afterMessageId,
+                     @Param("userId") Long userId);
+
     @Query("SELECT m FROM EventMessage m WHERE m.eventId = :eventId AND LOWER(m.content) LIKE LOWER(CONCAT('%', :query, '%'))")
     Page<EventMessage> findByEventIdAndContentContainingIgnoreCase(
         @Param("eventId") Long eventId,
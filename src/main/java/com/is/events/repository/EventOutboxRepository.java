@@ -0,0 +1,53 @@
+package com.is.events.repository;
+
+import com.is.events.model.EventOutboxMessage;
+import com.is.events.model.enums.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventOutboxRepository extends JpaRepository<EventOutboxMessage, Long> {
+
+    // Только головы очередей ивентов: сообщение берётся, когда все более ранние по этому ивенту обработаны.
+    // Арендованная голова остаётся PENDING и блокирует свой ивент до конца аренды.
+    // SKIP LOCKED позволяет нескольким инстансам забирать пачки параллельно
+    @Query(value = """
+            SELECT o.* FROM events.event_outbox o
+            WHERE o.status = 'PENDING'
+            AND o.next_attempt_at <= :now
+            AND (o.locked_until IS NULL OR o.locked_until < :now)
+            AND NOT EXISTS (
+                SELECT 1 FROM events.event_outbox p
+                WHERE p.event_id = o.event_id AND p.status = 'PENDING' AND p.id < o.id
+            )
+            ORDER BY o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EventOutboxMessage> claimNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Запись результата доставки: строка перечитывается под блокировкой, чтобы сверить claim_token
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM EventOutboxMessage o WHERE o.id IN :ids")
+    List<EventOutboxMessage> lockAllById(@Param("ids") Collection<Long> ids);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT MIN(o.createdAt) FROM EventOutboxMessage o WHERE o.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EventOutboxMessage o WHERE o.status = :status AND o.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") OutboxStatus status, @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,37 @@
+package com.is.events.repository;
+
+import com.is.events.model.EventParticipation;
+import com.is.events.model.EventParticipationId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EventParticipationRepository extends JpaRepository<EventParticipation, EventParticipationId> {
+
+    List<EventParticipation> findByEventId(Long eventId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO events.event_participants (event_id, user_id, status, joined_at, checked_in_at)
+            VALUES (:eventId, :userId, :status, :joinedAt, :checkedInAt)
+            ON CONFLICT (event_id, user_id) DO UPDATE
+            SET status = EXCLUDED.status,
+                joined_at = EXCLUDED.joined_at,
+                checked_in_at = EXCLUDED.checked_in_at
+            """, nativeQuery = true)
+    void upsert(@Param("eventId") Long eventId,
+                @Param("userId") Long userId,
+                @Param("status") String status,
+                @Param("joinedAt") LocalDateTime joinedAt,
+                @Param("checkedInAt") LocalDateTime checkedInAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM events.event_participants WHERE event_id = :eventId AND user_id = :userId", nativeQuery = true)
+    void deleteByEventIdAndUserId(@Param("eventId") Long eventId, @Param("userId") Long userId);
+}
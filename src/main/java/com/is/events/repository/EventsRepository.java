@@ -1,5 +1,6 @@
 package com.is.events.repository;
 
+import com.is.events.dto.EventCardDTO;
 import com.is.events.model.Event;
 import com.is.events.model.enums.EventStatus;
 import org.springframework.data.domain.Page;
@@ -12,18 +13,85 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
 @Repository
-public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event> {
+public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecificationExecutor<Event>, EventsRepositoryCustom {
 
     Event findEventByEventId(Long eventId);
 
-    Page<Event> findAllByPlaceId(Long placeId, Pageable pageable);
-
     List<Event> findAllByPlaceId(Long placeId);
 
+    @Query(value = EventCardDTO.SELECT + """
+            FROM Event e
+            WHERE e.placeId = :placeId
+            AND e.dateTime >= :from AND e.dateTime < :to
+            AND e.status NOT IN (com.is.events.model.enums.EventStatus.REJECTED, com.is.events.model.enums.EventStatus.EXPIRED)
+            """,
+            countQuery = """
+            SELECT COUNT(e) FROM Event e
+            WHERE e.placeId = :placeId
+            AND e.dateTime >= :from AND e.dateTime < :to
+            AND e.status NOT IN (com.is.events.model.enums.EventStatus.REJECTED, com.is.events.model.enums.EventStatus.EXPIRED)
+            """)
+    Page<EventCardDTO> findEventCardsByPlaceAndDateRange(@Param("placeId") Long placeId,
+                                                         @Param("from") LocalDateTime from,
+                                                         @Param("to") LocalDateTime to,
+                                                         Pageable pageable);
+
+    // Keyset-вариант: строго раньше курсора в порядке (dateTime DESC, eventId DESC), идёт по idx_events_place_date_id
+    @Query(value = EventCardDTO.SELECT + """
+            FROM Event e
+            WHERE e.placeId = :placeId
+            AND e.dateTime >= :from AND e.dateTime < :to
+            AND e.status NOT IN (com.is.events.model.enums.EventStatus.REJECTED, com.is.events.model.enums.EventStatus.EXPIRED)
+            AND (e.dateTime < :cursorTime OR (e.dateTime = :cursorTime AND e.eventId < :cursorId))
+            ORDER BY e.dateTime DESC, e.eventId DESC
+            """)
+    List<EventCardDTO> findEventCardsByPlaceAndDateRangeBefore(@Param("placeId") Long placeId,
+                                                               @Param("from") LocalDateTime from,
+                                                               @Param("to") LocalDateTime to,
+                                                               @Param("cursorTime") LocalDateTime cursorTime,
+                                                               @Param("cursorId") Long cursorId,
+                                                               Pageable limit);
+
+    @Query(value = EventCardDTO.SELECT + "FROM Event e WHERE e.placeId = :placeId",
+            countQuery = "SELECT COUNT(e) FROM Event e WHERE e.placeId = :placeId")
+    Page<EventCardDTO> findEventCardsByPlaceId(@Param("placeId") Long placeId, Pageable pageable);
+
+    // Городская лента: предстоящие ивенты города, индекс idx_events_city_status_date
+    @Query(value = EventCardDTO.SELECT + """
+            FROM Event e
+            WHERE e.cityId = :cityId AND e.status IN :statuses AND e.dateTime >= :from
+            ORDER BY e.dateTime ASC, e.eventId ASC
+            """,
+            countQuery = "SELECT COUNT(e) FROM Event e WHERE e.cityId = :cityId AND e.status IN :statuses AND e.dateTime >= :from")
+    Page<EventCardDTO> findEventCardsByCityId(@Param("cityId") Integer cityId,
+                                              @Param("statuses") Collection<EventStatus> statuses,
+                                              @Param("from") LocalDateTime from,
+                                              Pageable pageable);
+
+    @Query(value = EventCardDTO.SELECT + "FROM Event e WHERE e.placeId = :placeId AND e.status IN :statuses",
+            countQuery = "SELECT COUNT(e) FROM Event e WHERE e.placeId = :placeId AND e.status IN :statuses")
+    Page<EventCardDTO> findEventCardsByPlaceIdAndStatusIn(@Param("placeId") Long placeId,
+                                                          @Param("statuses") Collection<EventStatus> statuses,
+                                                          Pageable pageable);
+
+    // Число OPEN / PENDING_APPROVAL ивентов площадки по дням: строки (date, count)
+    @Query(value = """
+            SELECT CAST(date_trunc('day', e.date_time) AS date) AS day, COUNT(*) AS cnt
+            FROM events.events e
+            WHERE e.place_id = :placeId
+            AND e.status IN ('OPEN', 'PENDING_APPROVAL')
+            AND e.date_time >= :from AND e.date_time < :to
+            GROUP BY 1
+            """, nativeQuery = true)
+    List<Object[]> countEventsPerDay(@Param("placeId") Long placeId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
     @Query("SELECT e FROM Event e WHERE e.status = :status AND DATE(e.dateTime) = :today")
     List<Event> findOpenEventsForToday(@Param("status") EventStatus status, @Param("today") LocalDate today);
 
@@ -31,18 +99,14 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
 
     List<Event> findByStatus(EventStatus status);
 
+    List<Event> findByStatusInAndDateTimeAfter(Collection<EventStatus> statuses, LocalDateTime dateTime);
+
     @Query(value = """
-            SELECT DISTINCT e.* FROM events.events e 
-            WHERE e.status = 'COMPLETED' 
-            AND (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
-            )
-            ORDER BY e.date_time DESC 
+            SELECT e.* FROM events.user_event_timeline t
+            JOIN events.events e ON e.event_id = t.event_id
+            WHERE t.user_id = :userId
+            AND t.status = 'COMPLETED'
+            ORDER BY t.date_time DESC
             LIMIT 3
             """, nativeQuery = true)
     List<Event> findLastThreeCompletedEventsByUser(Long userId);
@@ -57,50 +121,33 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
                                                   @Param("endTime") LocalDateTime endTime);
 
     @Query(value = """
-            SELECT e.* FROM events.events e 
-            WHERE e.status = 'IN_PROGRESS' 
-            AND (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
-            )
-            ORDER BY e.date_time ASC 
+            SELECT e.* FROM events.user_event_timeline t
+            JOIN events.events e ON e.event_id = t.event_id
+            WHERE t.user_id = :userId
+            AND t.status = 'IN_PROGRESS'
+            ORDER BY t.date_time ASC
             LIMIT 1
             """, nativeQuery = true)
     Event findCurrentInProgressEventForUser(@Param("userId") Long userId);
 
     @Query(value = """
-            SELECT e.* FROM events.events e 
-            WHERE DATE(e.date_time) = :today
-            AND (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
-            )
-            AND e.status NOT IN ('EXPIRED', 'CANCELLED')
-            ORDER BY e.date_time ASC
+            SELECT e.* FROM events.user_event_timeline t
+            JOIN events.events e ON e.event_id = t.event_id
+            WHERE t.user_id = :userId
+            AND t.date_time >= CAST(:today AS date)
+            AND t.date_time < CAST(:today AS date) + 1
+            AND t.status NOT IN ('EXPIRED', 'CANCELLED')
+            ORDER BY t.date_time ASC
             """, nativeQuery = true)
     List<Event> findEventsForTodayByUser(@Param("userId") Long userId, @Param("today") LocalDate today);
 
     @Query(value = """
-            SELECT e.* FROM events.events e 
-            WHERE e.date_time > :currentTime
-            AND (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
-            )
-            AND e.status IN ('CONFIRMED', 'IN_PROGRESS')
-            ORDER BY e.date_time ASC 
+            SELECT e.* FROM events.user_event_timeline t
+            JOIN events.events e ON e.event_id = t.event_id
+            WHERE t.user_id = :userId
+            AND t.date_time > :currentTime
+            AND t.status IN ('CONFIRMED', 'IN_PROGRESS')
+            ORDER BY t.date_time ASC
             LIMIT 1
             """, nativeQuery = true)
     Event findNearestEventForUser(@Param("userId") Long userId, @Param("currentTime") LocalDateTime currentTime);
@@ -108,13 +155,11 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
     @Query(value = """
             SELECT DISTINCT e.* FROM events.events e 
             WHERE e.status NOT IN ('EXPIRED', 'REJECTED')
-            AND (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
+            AND e.event_id IN (
+                SELECT ep.event_id FROM events.event_participants ep WHERE ep.user_id = :userId
+                UNION
+                SELECT o.event_id FROM events.events o
+                WHERE o.organizer_id = :userId
             )
             ORDER BY e.date_time DESC 
             """, nativeQuery = true)
@@ -122,7 +167,7 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
 
     @Query(value = """
             SELECT COUNT(e.*) FROM events.events e 
-            WHERE CAST((e.organizer_event->>'organizerId') AS bigint) = :organizerId
+            WHERE e.organizer_id = :organizerId
             AND DATE(e.date_time) = :date
             AND e.status NOT IN ('REJECTED', 'EXPIRED')
             """, nativeQuery = true)
@@ -130,121 +175,22 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
 
     @Query(value = """
             SELECT e.* FROM events.events e 
-            WHERE CAST((e.organizer_event->>'organizerId') AS bigint) = :organizerId
+            WHERE e.organizer_id = :organizerId
             AND DATE(e.date_time) = :date
             AND e.status NOT IN ('REJECTED', 'EXPIRED')
             ORDER BY e.date_time DESC
             """, nativeQuery = true)
     List<Event> findEventsByOrganizerAndDate(@Param("organizerId") Long organizerId, @Param("date") LocalDate date);
 
-    @Query(value = """
-            SELECT COUNT(DISTINCT e.*) FROM events.events e 
-            WHERE EXISTS (
-                SELECT 1 
-                FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                WHERE CAST((p->>'participantId') AS bigint) = :userId
-            )
-            AND CAST((e.organizer_event->>'organizerId') AS bigint) != :userId
-            """, nativeQuery = true)
-    int countEventsWhereUserIsParticipant(@Param("userId") Long userId);
-
-    @Query(value = """
-            SELECT COUNT(DISTINCT e.*) FROM events.events e 
-            WHERE CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-            """, nativeQuery = true)
-    int countEventsWhereUserIsOrganizer(@Param("userId") Long userId);
-
-    @Query(value = """
-            SELECT COUNT(DISTINCT e.*) FROM events.events e 
-            WHERE (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
-            )
-            """, nativeQuery = true)
-    int countAllUserEvents(@Param("userId") Long userId);
-
-    @Query(value = """
-            SELECT e.* FROM events.events e 
-            WHERE e.place_id = :placeId
-            AND DATE(e.date_time) BETWEEN :startDate AND :endDate
-            AND e.status NOT IN ('REJECTED', 'EXPIRED')
-            ORDER BY e.date_time DESC
-            """, nativeQuery = true)
-    Page<Event> findEventsByPlaceAndDateRange(
-        @Param("placeId") Long placeId,
-        @Param("startDate") LocalDate startDate,
-        @Param("endDate") LocalDate endDate,
-        Pageable pageable
-    );
-
-    @Query(value = """
-            SELECT COUNT(DISTINCT e.event_id) 
-            FROM events.events e 
-            WHERE CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-            AND DATE(e.date_time) = :date
-            AND e.status NOT IN ('REJECTED', 'EXPIRED', 'CANCELLED', 'COMPLETED')
-            """, nativeQuery = true)
-    int countUserEventsAsOrganizerForDate(@Param("userId") Long userId, @Param("date") LocalDate date);
-
-    @Query(value = """
-            SELECT COUNT(DISTINCT e.event_id) 
-            FROM events.events e 
-            WHERE EXISTS (
-                SELECT 1 
-                FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                WHERE CAST((p->>'participantId') AS bigint) = :userId
-            )
-            AND DATE(e.date_time) = :date
-            AND e.status NOT IN ('REJECTED', 'EXPIRED', 'CANCELLED', 'COMPLETED')
-            """, nativeQuery = true)
-    int countUserEventsAsParticipantForDate(@Param("userId") Long userId, @Param("date") LocalDate date);
-
-    @Query(value = """
-            SELECT COUNT(DISTINCT e.event_id) 
-            FROM events.events e 
-            WHERE CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-            AND EXISTS (
-                SELECT 1 
-                FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                WHERE CAST((p->>'participantId') AS bigint) = :userId
-            )
-            AND DATE(e.date_time) = :date
-            AND e.status NOT IN ('REJECTED', 'EXPIRED', 'CANCELLED', 'COMPLETED')
-            """, nativeQuery = true)
-    int countUserEventsAsBothRolesForDate(@Param("userId") Long userId, @Param("date") LocalDate date);
-
-    @Query(value = """
-            SELECT e.* FROM events.events e 
-            WHERE e.place_id = :placeId
-            AND (:statuses IS NULL OR e.status = ANY(:statuses))
-            """, 
-            countQuery = """
-            SELECT COUNT(*) FROM events.events e 
-            WHERE e.place_id = :placeId
-            AND (:statuses IS NULL OR e.status = ANY(:statuses))
-            """,
-            nativeQuery = true)
-    Page<Event> findOrganizationEventsByStatus(
-        @Param("placeId") Long placeId,
-        @Param("statuses") String[] statuses,
-        Pageable pageable
-    );
-
     @Query(value = """
             SELECT e.* FROM events.events e 
             WHERE e.date_time > :currentTime
             AND e.status IN ('OPEN', 'CONFIRMED', 'PENDING_APPROVAL')
-            AND (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
+            AND e.event_id IN (
+                SELECT ep.event_id FROM events.event_participants ep WHERE ep.user_id = :userId
+                UNION
+                SELECT o.event_id FROM events.events o
+                WHERE o.organizer_id = :userId
             )
             ORDER BY e.date_time ASC 
             LIMIT 1
@@ -256,13 +202,11 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
             WHERE e.place_id = :placeId
             AND DATE(e.date_time) = DATE(:currentDate)
             AND e.status IN ('OPEN', 'CONFIRMED', 'PENDING_APPROVAL')
-            AND (
-                CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-                OR EXISTS (
-                    SELECT 1 
-                    FROM jsonb_array_elements(e.current_participants->'participants') as p 
-                    WHERE CAST((p->>'participantId') AS bigint) = :userId
-                )
+            AND e.event_id IN (
+                SELECT ep.event_id FROM events.event_participants ep WHERE ep.user_id = :userId
+                UNION
+                SELECT o.event_id FROM events.events o
+                WHERE o.organizer_id = :userId
             )
             ORDER BY e.date_time ASC
             """, nativeQuery = true)
@@ -272,13 +216,11 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
         SELECT e.* FROM events.events e
         WHERE e.place_id = :placeId
           AND e.status NOT IN ('EXPIRED', 'COMPLETED', 'CANCELLED')
-          AND (
-            CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-            OR EXISTS (
-              SELECT 1
-              FROM jsonb_array_elements(e.current_participants->'participants') as p
-              WHERE CAST((p->>'participantId') AS bigint) = :userId
-            )
+          AND e.event_id IN (
+              SELECT ep.event_id FROM events.event_participants ep WHERE ep.user_id = :userId
+              UNION
+              SELECT o.event_id FROM events.events o
+              WHERE o.organizer_id = :userId
           )
           AND (
             (e.date_time >= :now AND e.date_time <= :now_plus_30)
@@ -297,13 +239,11 @@ public interface EventsRepository extends JpaRepository<Event, Long>, JpaSpecifi
         SELECT e.* FROM events.events e
         WHERE e.place_id = :placeId
           AND DATE(e.date_time) = :today
-          AND (
-            CAST((e.organizer_event->>'organizerId') AS bigint) = :userId
-            OR EXISTS (
-              SELECT 1
-              FROM jsonb_array_elements(e.current_participants->'participants') as p
-              WHERE CAST((p->>'participantId') AS bigint) = :userId
-            )
+          AND e.event_id IN (
+              SELECT ep.event_id FROM events.event_participants ep WHERE ep.user_id = :userId
+              UNION
+              SELECT o.event_id FROM events.events o
+              WHERE o.organizer_id = :userId
           )
           AND (
             (
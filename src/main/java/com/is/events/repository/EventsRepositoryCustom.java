@@ -0,0 +1,19 @@
+package com.is.events.repository;
+
+import com.is.events.dto.EventCardDTO;
+import com.is.events.model.Event;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface EventsRepositoryCustom {
+
+    // Как findAll(spec, pageable), но выбирает только колонки карточки
+    Page<EventCardDTO> findCards(Specification<Event> spec, Pageable pageable);
+
+    // Карточки без COUNT и OFFSET — для keyset-пагинации
+    List<EventCardDTO> findCardsLimited(Specification<Event> spec, Sort sort, int limit);
+}
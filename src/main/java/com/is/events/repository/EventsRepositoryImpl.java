@@ -0,0 +1,70 @@
+package com.is.events.repository;
+
+import com.is.events.dto.EventCardDTO;
+import com.is.events.model.Event;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventsRepositoryImpl implements EventsRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<EventCardDTO> findCards(Specification<Event> spec, Pageable pageable) {
+        TypedQuery<EventCardDTO> query = cardQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<EventCardDTO> findCardsLimited(Specification<Event> spec, Sort sort, int limit) {
+        return cardQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<EventCardDTO> cardQuery(Specification<Event> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventCardDTO> query = cb.createQuery(EventCardDTO.class);
+        Root<Event> root = query.from(Event.class);
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        query.select(cb.construct(EventCardDTO.class,
+                root.get("eventId"), root.get("title"), root.get("dateTime"), root.get("status"), root.get("placeId"),
+                root.get("sportType"), root.get("price"), root.get("participantsSize"), root.get("maxParticipants")));
+        // Порядок, заданный спецификацией (например, релевантность поиска), идёт перед сортировкой страницы
+        List<Order> orders = new ArrayList<>(query.getOrderList());
+        orders.addAll(QueryUtils.toOrders(sort, root, cb));
+        query.orderBy(orders);
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Event> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Event> root = query.from(Event.class);
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        query.select(cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,38 @@
+package com.is.events.repository;
+
+import com.is.events.model.chat.MessageReaction;
+import com.is.events.model.chat.MessageReactionId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MessageReactionRepository extends JpaRepository<MessageReaction, MessageReactionId> {
+
+    // 1 — реакция добавлена, 0 — уже была (параллельные нажатия не теряются и не дублируются)
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.message_reactions (message_id, reaction, user_id, created_at)
+            VALUES (:messageId, :reaction, :userId, now())
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int add(@Param("messageId") Long messageId, @Param("reaction") String reaction, @Param("userId") Long userId);
+
+    // 1 — реакция снята, 0 — её не было
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM events.message_reactions
+            WHERE message_id = :messageId AND reaction = :reaction AND user_id = :userId
+            """, nativeQuery = true)
+    int remove(@Param("messageId") Long messageId, @Param("reaction") String reaction, @Param("userId") Long userId);
+
+    List<MessageReaction> findByMessageIdInOrderByCreatedAtAsc(Collection<Long> messageIds);
+}
@@ -4,10 +4,13 @@ import com.is.events.model.UserActivityTracking;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserActivityTrackingRepository extends JpaRepository<UserActivityTracking, Long> {
     Optional<UserActivityTracking> findByUserId(Long userId);
     boolean existsByUserId(Long userId);
-}
\ No newline at end of file
+    List<UserActivityTracking> findAllByUserIdIn(Collection<Long> userIds);
+}
@@ -0,0 +1,37 @@
+package com.is.events.repository;
+
+import com.is.events.model.UserDailyEventLoad;
+import com.is.events.model.UserDailyEventLoadId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface UserDailyEventLoadRepository extends JpaRepository<UserDailyEventLoad, UserDailyEventLoadId> {
+
+    // Применяет дельты, только если уникальных ивентов на дату меньше :maxEvents.
+    // Строка блокируется ON CONFLICT, поэтому проверка и инкремент атомарны; 0 — лимит исчерпан
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.user_daily_event_load (user_id, load_date, as_organizer, as_participant, as_both)
+            VALUES (:userId, :loadDate, GREATEST(:organizerDelta, 0), GREATEST(:participantDelta, 0), GREATEST(:bothDelta, 0))
+            ON CONFLICT (user_id, load_date) DO UPDATE
+            SET as_organizer = GREATEST(events.user_daily_event_load.as_organizer + :organizerDelta, 0),
+                as_participant = GREATEST(events.user_daily_event_load.as_participant + :participantDelta, 0),
+                as_both = GREATEST(events.user_daily_event_load.as_both + :bothDelta, 0)
+            WHERE events.user_daily_event_load.as_organizer + events.user_daily_event_load.as_participant
+                  - events.user_daily_event_load.as_both < :maxEvents
+            """, nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("loadDate") LocalDate loadDate,
+                   @Param("organizerDelta") int organizerDelta,
+                   @Param("participantDelta") int participantDelta,
+                   @Param("bothDelta") int bothDelta,
+                   @Param("maxEvents") int maxEvents);
+}
@@ -0,0 +1,78 @@
+package com.is.events.repository;
+
+import com.is.events.model.UserEventStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UserEventStatsRepository extends JpaRepository<UserEventStats, Long> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.user_event_stats (user_id, events_as_organizer, events_as_participant, completed_events, updated_at)
+            VALUES (:userId, GREATEST(:organizerDelta, 0), GREATEST(:participantDelta, 0), 0, now())
+            ON CONFLICT (user_id) DO UPDATE
+            SET events_as_organizer = GREATEST(events.user_event_stats.events_as_organizer + :organizerDelta, 0),
+                events_as_participant = GREATEST(events.user_event_stats.events_as_participant + :participantDelta, 0),
+                updated_at = now()
+            """, nativeQuery = true)
+    void increment(@Param("userId") Long userId,
+                   @Param("organizerDelta") int organizerDelta,
+                   @Param("participantDelta") int participantDelta);
+
+    // Все пользователи из таймлайна ивента получают +1 к завершённым
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.user_event_stats (user_id, events_as_organizer, events_as_participant, completed_events, updated_at)
+            SELECT t.user_id, 0, 0, 1, now()
+            FROM events.user_event_timeline t
+            WHERE t.event_id = :eventId
+            ON CONFLICT (user_id) DO UPDATE
+            SET completed_events = events.user_event_stats.completed_events + 1,
+                updated_at = now()
+            """, nativeQuery = true)
+    void incrementCompleted(@Param("eventId") Long eventId);
+
+    // SHARE ROW EXCLUSIVE конфликтует с ROW EXCLUSIVE инкрементов и с самим собой; держится до конца транзакции,
+    // поэтому вызывается только внутри транзакции пересчёта (UserEventStatsService.rebuildAll)
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "LOCK TABLE events.user_event_stats IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Полный пересчёт из events / event_participants (см. V7)
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.user_event_stats (user_id, events_as_organizer, events_as_participant, completed_events, updated_at)
+            SELECT u.user_id,
+                   COUNT(*) FILTER (WHERE u.role = 'ORGANIZER'),
+                   COUNT(*) FILTER (WHERE u.role = 'PARTICIPANT'),
+                   COUNT(*) FILTER (WHERE u.status = 'COMPLETED'),
+                   now()
+            FROM (
+                SELECT e.organizer_id AS user_id, 'ORGANIZER' AS role, e.status
+                FROM events.events e
+                WHERE e.organizer_id IS NOT NULL
+                UNION ALL
+                SELECT ep.user_id, 'PARTICIPANT', e.status
+                FROM events.event_participants ep
+                JOIN events.events e ON e.event_id = ep.event_id
+                WHERE e.organizer_id IS DISTINCT FROM ep.user_id
+            ) u
+            GROUP BY u.user_id
+            ON CONFLICT (user_id) DO UPDATE
+            SET events_as_organizer = EXCLUDED.events_as_organizer,
+                events_as_participant = EXCLUDED.events_as_participant,
+                completed_events = EXCLUDED.completed_events,
+                updated_at = now()
+            """, nativeQuery = true)
+    int rebuildAll();
+}
@@ -0,0 +1,52 @@
+package com.is.events.repository;
+
+import com.is.events.model.UserEventTimeline;
+import com.is.events.model.UserEventTimelineId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserEventTimelineRepository extends JpaRepository<UserEventTimeline, UserEventTimelineId> {
+
+    // Роль ORGANIZER не перезаписывается, если организатор попал и в список участников
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO events.user_event_timeline (user_id, event_id, role, date_time, status)
+            VALUES (:userId, :eventId, :role, :dateTime, :status)
+            ON CONFLICT (user_id, event_id) DO UPDATE
+            SET role = CASE WHEN events.user_event_timeline.role = 'ORGANIZER' THEN 'ORGANIZER' ELSE EXCLUDED.role END,
+                date_time = EXCLUDED.date_time,
+                status = EXCLUDED.status
+            """, nativeQuery = true)
+    void upsert(@Param("userId") Long userId,
+                @Param("eventId") Long eventId,
+                @Param("role") String role,
+                @Param("dateTime") LocalDateTime dateTime,
+                @Param("status") String status);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE events.user_event_timeline
+            SET status = :status, date_time = :dateTime
+            WHERE event_id = :eventId
+            """, nativeQuery = true)
+    void updateEvent(@Param("eventId") Long eventId,
+                     @Param("status") String status,
+                     @Param("dateTime") LocalDateTime dateTime);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM events.user_event_timeline
+            WHERE user_id = :userId AND event_id = :eventId AND role <> 'ORGANIZER'
+            """, nativeQuery = true)
+    void deleteParticipant(@Param("userId") Long userId, @Param("eventId") Long eventId);
+}
@@ -1,22 +1,20 @@
 package com.is.events.scheduler;
 
-import com.is.auth.service.EmailService;
 import com.is.auth.service.PushNotificationService;
-import com.is.auth.repository.UserRepository;
-import com.is.auth.model.user.User;
 import com.is.auth.model.user.UserAdditionalInfo;
 import com.is.auth.repository.UserAdditionalInfoRepository;
 import com.is.events.model.Event;
+import com.is.events.model.EventLifecycleEvent;
 import com.is.events.model.enums.EventMessageType;
 import com.is.events.model.enums.EventStatus;
 import com.is.events.repository.EventsRepository;
-import com.is.events.service.WebSocketService;
-import com.is.events.service.EventMessageService;
 import com.is.events.service.LocalizationService;
+import com.is.events.service.outbox.EventOutboxService;
 import com.is.places.model.Place;
 import com.is.places.repository.PlaceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,14 +31,12 @@ import java.util.Optional;
 public class EventScheduler {
 
     private final EventsRepository eventsRepository;
-    private final WebSocketService webSocketService;
-    private final EventMessageService eventMessageService;
     private final PlaceRepository placeRepository;
-    private final EmailService emailService;
     private final PushNotificationService pushNotificationService;
     private final LocalizationService localizationService;
-    private final UserRepository userRepository;
     private final UserAdditionalInfoRepository userAdditionalInfoRepository;
+    private final EventOutboxService eventOutboxService;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     // Кэш для отслеживания уже отправленных уведомлений
     private final Set<Long> sentHourNotifications = ConcurrentHashMap.newKeySet();
@@ -60,9 +56,8 @@ public class EventScheduler {
                     if (event.getStatus() == EventStatus.CONFIRMED && !event.getDateTime().isAfter(now)) {
                         event.setStatus(EventStatus.IN_PROGRESS);
                         Event savedEvent = eventsRepository.save(event);
-                        eventMessageService.sendEventMessage(savedEvent, EventMessageType.EVENT_STARTED, null, "ru");
-                        webSocketService.notifyEventUpdate(event.getPlaceId());
-                        webSocketService.sendEventUpdate(savedEvent);
+                        applicationEventPublisher.publishEvent(EventLifecycleEvent.statusChanged(savedEvent, EventStatus.CONFIRMED));
+                        eventOutboxService.enqueueStatusChange(savedEvent, EventStatus.CONFIRMED, EventMessageType.EVENT_STARTED, "ru");
                         log.info("Event {} moved to IN_PROGRESS", event.getEventId());
                     }
                     // Перевод в EXPIRED только если статус OPEN, PENDING_APPROVAL, CHANGES_REQUESTED и время прошло
@@ -70,13 +65,11 @@ public class EventScheduler {
                          event.getStatus() == EventStatus.PENDING_APPROVAL ||
                          event.getStatus() == EventStatus.CHANGES_REQUESTED)
                         && event.getDateTime().isBefore(now)) {
+                        EventStatus previousStatus = event.getStatus();
                         event.forceExpire();
                         Event savedEvent = eventsRepository.save(event);
-                        eventMessageService.sendEventMessage(savedEvent, EventMessageType.EVENT_EXPIRED, null, "ru");
-                        webSocketService.notifyEventUpdate(event.getPlaceId());
-                        webSocketService.sendEventUpdate(savedEvent);
-                        Place getPlace = placeRepository.findPlaceByPlaceId(event.getPlaceId());
-                        emailService.sendEventStatusChangeNotification(event,"ru",getPlace.getName(),getPlace.getPhone());
+                        applicationEventPublisher.publishEvent(EventLifecycleEvent.statusChanged(savedEvent, previousStatus));
+                        eventOutboxService.enqueueStatusChange(savedEvent, previousStatus, EventMessageType.EVENT_EXPIRED, "ru");
                         log.info("Event {} expired due to time", event.getEventId());
                     }
                 } catch (Exception e) {
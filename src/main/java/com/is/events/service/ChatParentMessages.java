@@ -0,0 +1,96 @@
+package com.is.events.service;
+
+import com.is.events.model.chat.ChatMessageParent;
+import com.is.events.model.chat.EventMessage;
+import com.is.events.repository.EventMessageRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Цитируемые сообщения для ChatMessageDTO.
+ * На каждый ивент в кэше chatRecentParents лежит небольшой LRU последних сообщений:
+ * ответы в живом чате почти всегда цитируют недавние сообщения, поэтому рассылки после
+ * отправки, правки и реакций обходятся без запроса. Промахи страницы — одним findAllById.
+ */
+@Service
+public class ChatParentMessages {
+
+    private static final String CACHE_NAME = "chatRecentParents";
+    private static final int PARENTS_PER_EVENT = 100;
+
+    private final EventMessageRepository messageRepository;
+    private final Cache cache;
+
+    public ChatParentMessages(EventMessageRepository messageRepository, CacheManager cacheManager) {
+        this.messageRepository = messageRepository;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    // parentMessageId -> цитата для всех сообщений страницы; сообщения самой страницы используются без запроса
+    public Map<Long, ChatMessageParent> forMessages(Long eventId, Collection<EventMessage> messages) {
+        Map<Long, ChatMessageParent> parents = new HashMap<>();
+        Set<Long> parentIds = new HashSet<>();
+        for (EventMessage message : messages) {
+            if (message.getParentMessageId() != null) {
+                parentIds.add(message.getParentMessageId());
+            }
+        }
+        if (parentIds.isEmpty()) {
+            return parents;
+        }
+
+        Map<Long, EventMessage> onPage = new HashMap<>();
+        messages.forEach(message -> onPage.put(message.getMessageId(), message));
+        Map<Long, ChatMessageParent> recent = recent(eventId);
+
+        Set<Long> misses = new HashSet<>();
+        for (Long parentId : parentIds) {
+            EventMessage pageMessage = onPage.get(parentId);
+            ChatMessageParent parent = pageMessage != null ? ChatMessageParent.of(pageMessage) : recent.get(parentId);
+            if (parent != null) {
+                parents.put(parentId, parent);
+            } else {
+                misses.add(parentId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (EventMessage message : messageRepository.findAllById(misses)) {
+                ChatMessageParent parent = ChatMessageParent.of(message);
+                parents.put(message.getMessageId(), parent);
+                recent.put(message.getMessageId(), parent);
+            }
+        }
+        return parents;
+    }
+
+    public Map<Long, ChatMessageParent> forMessage(EventMessage message) {
+        return forMessages(message.getEventId(), List.of(message));
+    }
+
+    // Новое или изменённое сообщение: его скорее всего процитируют следующим
+    public void remember(EventMessage message) {
+        if (message.getMessageId() != null && message.getEventId() != null) {
+            recent(message.getEventId()).put(message.getMessageId(), ChatMessageParent.of(message));
+        }
+    }
+
+    // Отозванное сообщение (не записалось в БД) не должно всплывать в цитатах
+    public void forget(EventMessage message) {
+        if (message.getMessageId() != null && message.getEventId() != null) {
+            recent(message.getEventId()).remove(message.getMessageId());
+        }
+    }
+
+    private Map<Long, ChatMessageParent> recent(Long eventId) {
+        return cache.get(eventId, () -> Collections.synchronizedMap(new LinkedHashMap<Long, ChatMessageParent>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ChatMessageParent> eldest) {
+                return size() > PARENTS_PER_EVENT;
+            }
+        }));
+    }
+}
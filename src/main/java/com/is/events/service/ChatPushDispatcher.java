@@ -0,0 +1,56 @@
+package com.is.events.service;
+
+import com.is.auth.service.PushNotificationService;
+import com.is.events.model.Event;
+import com.is.events.model.chat.ChatMessageDTO;
+import com.is.events.repository.EventsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * FCM о новых сообщениях чата — отдельная стадия после записи сообщения на пуле chatPushExecutor.
+ * Стадия запускается с потока записи чата, поэтому пул без CallerRuns: при переполнении
+ * пуш пропускается, а не выполняется на chat-writer и не тормозит запись.
+ */
+@Slf4j
+@Component
+public class ChatPushDispatcher {
+
+    private final ThreadPoolTaskExecutor chatPushExecutor;
+    private final EventsRepository eventsRepository;
+    private final PushNotificationService pushNotificationService;
+
+    public ChatPushDispatcher(@Qualifier("chatPushExecutor") ThreadPoolTaskExecutor chatPushExecutor,
+                              EventsRepository eventsRepository,
+                              PushNotificationService pushNotificationService) {
+        this.chatPushExecutor = chatPushExecutor;
+        this.eventsRepository = eventsRepository;
+        this.pushNotificationService = pushNotificationService;
+    }
+
+    // Пуш уходит только после записи сообщения; неудачная запись пуш не отправляет
+    public void dispatchAfter(CompletableFuture<?> persisted, ChatMessageDTO message) {
+        persisted.thenRunAsync(() -> send(message), chatPushExecutor)
+                .whenComplete((result, failure) -> {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    if (cause instanceof RejectedExecutionException) {
+                        log.warn("Chat push pool is saturated, skipping push for message {}", message.getMessageId());
+                    }
+                });
+    }
+
+    private void send(ChatMessageDTO message) {
+        Event event = eventsRepository.findEventByEventId(message.getEventId());
+        if (event != null) {
+            pushNotificationService.sendNewChatMessageNotification(
+                    event, message.getSenderName(), message.getContent(), message.getSenderId());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.is.events.service;
+
+import com.is.auth.repository.UserRepository;
+import com.is.auth.service.UserAvatarCache;
+import com.is.events.model.chat.ChatSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Имена и аватары отправителей для страницы чата.
+ * Имена хранятся в кэше chatSenderNames, аватары — в общем UserAvatarCache (его сбрасывает смена аватара).
+ * Все промахи по странице догружаются одним запросом users LEFT JOIN user_details.
+ */
+@Service
+@Slf4j
+public class ChatSenderDirectory {
+
+    private static final String CACHE_NAME = "chatSenderNames";
+
+    private final UserRepository userRepository;
+    private final UserAvatarCache userAvatarCache;
+    private final Cache names;
+
+    public ChatSenderDirectory(UserRepository userRepository, UserAvatarCache userAvatarCache, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.userAvatarCache = userAvatarCache;
+        this.names = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME));
+    }
+
+    // userId -> отправитель; системные (0) и null id пропускаются, неизвестные получают "User {id}"
+    public Map<Long, ChatSender> resolve(Collection<Long> senderIds) {
+        Map<Long, ChatSender> senders = new HashMap<>();
+        if (senderIds == null || senderIds.isEmpty()) {
+            return senders;
+        }
+
+        Map<Long, String> cachedNames = new HashMap<>();
+        Map<Long, String> cachedAvatars = new HashMap<>();
+        Set<Long> misses = new HashSet<>();
+        for (Long senderId : senderIds) {
+            if (senderId == null || senderId == 0) {
+                continue;
+            }
+            String name = names.get(senderId, String.class);
+            String avatar = userAvatarCache.getCachedAvatar(senderId);
+            if (name == null || avatar == null) {
+                misses.add(senderId);
+            } else {
+                cachedNames.put(senderId, name);
+                cachedAvatars.put(senderId, avatar);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            try {
+                for (Object[] row : userRepository.findChatSenders(misses)) {
+                    Long userId = ((Number) row[0]).longValue();
+                    String displayName = displayName(userId, (String) row[1], (String) row[2]);
+                    names.put(userId, displayName);
+                    cachedNames.put(userId, displayName);
+                    // Без user_details аватар не кэшируется, как и в UserAvatarCache
+                    if (row[3] != null) {
+                        String avatar = row[4] != null ? (String) row[4] : "";
+                        userAvatarCache.put(userId, avatar);
+                        cachedAvatars.put(userId, avatar);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Error loading chat senders {}: {}", misses, e.getMessage());
+            }
+        }
+
+        for (Long senderId : senderIds) {
+            if (senderId == null || senderId == 0 || senders.containsKey(senderId)) {
+                continue;
+            }
+            String name = cachedNames.get(senderId);
+            senders.put(senderId, name == null
+                    ? ChatSender.unknown(senderId)
+                    : new ChatSender(senderId, name, cachedAvatars.getOrDefault(senderId, "")));
+        }
+        return senders;
+    }
+
+    public ChatSender resolve(Long senderId) {
+        return resolve(List.of(senderId)).getOrDefault(senderId, ChatSender.unknown(senderId));
+    }
+
+    public void evict(Long userId) {
+        names.evict(userId);
+    }
+
+    private static String displayName(Long userId, String firstName, String lastName) {
+        String name = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        return name.isEmpty() ? "User " + userId : name;
+    }
+}
@@ -4,17 +4,23 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.is.auth.model.ResponseAnswers.Response;
 import com.is.auth.model.user.UserService;
-import com.is.auth.service.PushNotificationService;
-import com.is.events.model.Event;
 import com.is.events.model.chat.EventMessage;
+import com.is.events.model.chat.MessageReaction;
+import com.is.events.model.chat.ChatMessageParent;
 import com.is.events.model.chat.ChatMessagesRequest;
+import com.is.events.model.chat.ChatReactionDelta;
+import com.is.events.model.chat.ChatReadWatermark;
+import com.is.events.model.chat.ChatSender;
 import com.is.events.model.chat.MessageType;
+import com.is.events.repository.ChatReadWatermarkRepository;
 import com.is.events.repository.EventMessageRepository;
-import com.is.events.repository.EventsRepository;
+import com.is.events.repository.MessageReactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.is.events.exception.ChatBusyException;
 import com.is.events.model.chat.ChatMessageDTO;
 import com.is.events.model.chat.ChatMessageRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -26,6 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,8 +44,18 @@ public class ChatService {
     private final UserService userService;
     private final WebSocketService webSocketService;
     private final ObjectMapper objectMapper;
-    private final PushNotificationService pushNotificationService;
-    private final EventsRepository eventsRepository;
+    private final ChatSenderDirectory senderDirectory;
+    private final ChatParentMessages parentMessages;
+    private final ChatWritePipeline chatWritePipeline;
+    private final ChatPushDispatcher chatPushDispatcher;
+    private final ChatReadWatermarkRepository watermarkRepository;
+    private final MessageReactionRepository reactionRepository;
+
+    // Нижняя граница для пользователя без водяного знака
+    private static final LocalDateTime READ_NOTHING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Value("${app.chat.write.system-ack-timeout-ms:5000}")
+    private long systemAckTimeoutMs;
 
     public Page<ChatMessageDTO> getEventMessages(Long eventId, ChatMessagesRequest request,
                                                String accessToken, String refreshToken, String lang) {
@@ -49,50 +66,20 @@ public class ChatService {
         PageRequest pageRequest = PageRequest.of(
             request.getPage(),
             request.getSize(),
-            Sort.by(direction, "sentAt")
+            Sort.by(direction, "sentAt", "messageId")
         );
         
         log.info("Fetching messages from repository with pageRequest: {}", pageRequest);
         Page<EventMessage> messages = messageRepository.findByEventId(eventId, pageRequest);
         log.info("Found {} messages", messages.getTotalElements());
         
-        // Get all unique sender IDs
-        List<Long> senderIds = messages.getContent().stream()
+        Map<Long, ChatSender> senders = senderDirectory.resolve(messages.getContent().stream()
             .map(EventMessage::getSenderId)
-            .filter(id -> id != null && id != 0)
-            .distinct()
-            .collect(Collectors.toList());
-            
-        // Get profile pictures for all senders
-        Map<Long, String> userAvatars = userService.getUsersProfilePicturesForChat(senderIds);
-        log.info("Retrieved {} user avatars", userAvatars.size());
-        
-        // Get user names for all senders
-        Map<Long, String> userNames = new HashMap<>();
-        for (Long senderId : senderIds) {
-            try {
-                ResponseEntity<Response> userResponse = userService.getUserProfile(senderId, lang);
-                if (userResponse.getBody() != null && userResponse.getBody().getResult() != null) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> userInfo = (Map<String, Object>) userResponse.getBody().getResult();
-                    String firstName = userInfo.get("first_name") != null ? userInfo.get("first_name").toString() : "";
-                    String lastName = userInfo.get("last_name") != null ? userInfo.get("last_name").toString() : "";
-                    userNames.put(senderId, firstName + " " + lastName);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to get user name for ID {}: {}", senderId, e.getMessage());
-                userNames.put(senderId, "User " + senderId);
-            }
-        }
-        
-        Page<ChatMessageDTO> result = messages.map(message -> {
-            ChatMessageDTO dto = convertToDTO(message);
-            if (message.getSenderId() != null && message.getSenderId() != 0) {
-                dto.setSenderAvatarUrl(userAvatars.getOrDefault(message.getSenderId(), ""));
-                dto.setSenderName(userNames.getOrDefault(message.getSenderId(), "User " + message.getSenderId()));
-            }
-            return dto;
-        });
+            .collect(Collectors.toSet()));
+
+        MessageContext context = context(eventId, messages.getContent());
+
+        Page<ChatMessageDTO> result = messages.map(message -> withSender(convertToDTO(message, context), senders));
         
         log.info("Returning {} DTOs", result.getTotalElements());
         return result;
@@ -103,50 +90,21 @@ public class ChatService {
         // Validate user access
         validateUserAccess(accessToken, refreshToken, lang);
         
-        PageRequest pageRequest = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "sentAt"));
+        PageRequest pageRequest = PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "sentAt", "messageId"));
         List<EventMessage> messages = messageRepository.findByEventId(eventId, pageRequest).getContent();
         
-        // Get all unique sender IDs
-        List<Long> senderIds = messages.stream()
+        Map<Long, ChatSender> senders = senderDirectory.resolve(messages.stream()
             .map(EventMessage::getSenderId)
-            .filter(id -> id != null && id != 0)
-            .distinct()
-            .collect(Collectors.toList());
-            
-        // Get profile pictures for all senders
-        Map<Long, String> userAvatars = userService.getUsersProfilePicturesForChat(senderIds);
-        
-        // Get user names for all senders
-        Map<Long, String> userNames = new HashMap<>();
-        for (Long senderId : senderIds) {
-            try {
-                ResponseEntity<Response> userResponse = userService.getUserProfile(senderId, lang);
-                if (userResponse.getBody() != null && userResponse.getBody().getResult() != null) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> userInfo = (Map<String, Object>) userResponse.getBody().getResult();
-                    String firstName = userInfo.get("firstName") != null ? userInfo.get("firstName").toString() : "";
-                    String lastName = userInfo.get("lastName") != null ? userInfo.get("lastName").toString() : "";
-                    userNames.put(senderId, firstName + " " + lastName);
-                }
-            } catch (Exception e) {
-                log.warn("Failed to get user name for ID {}: {}", senderId, e.getMessage());
-                userNames.put(senderId, "User " + senderId);
-            }
-        }
-        
+            .collect(Collectors.toSet()));
+
+        MessageContext context = context(eventId, messages);
+
         return messages.stream()
-            .map(message -> {
-                ChatMessageDTO dto = convertToDTO(message);
-                if (message.getSenderId() != null && message.getSenderId() != 0) {
-                    dto.setSenderAvatarUrl(userAvatars.getOrDefault(message.getSenderId(), ""));
-                    dto.setSenderName(userNames.getOrDefault(message.getSenderId(), "User " + message.getSenderId()));
-                }
-                return dto;
-            })
+            .map(message -> withSender(convertToDTO(message, context), senders))
             .collect(Collectors.toList());
     }
 
-    @Transactional
+    // Запись идёт через ChatWritePipeline: сообщение рассылается сразу, в БД попадает пачкой
     public ChatMessageDTO sendMessage(Long eventId, Long userId, ChatMessageRequest request, String accessToken, String refreshToken, String language) {
         try {
             if (userId == 0) {
@@ -166,22 +124,24 @@ public class ChatService {
                 if (request.getQuotedMessageId() != null) {
                     systemMessage.setParentMessageId(request.getQuotedMessageId());
                 }
-                EventMessage savedMessage = messageRepository.save(systemMessage);
-                ChatMessageDTO messageDTO = convertToDTO(savedMessage);
-                messagingTemplate.convertAndSend("/topic/chat/" + eventId, messageDTO);
-                return messageDTO;
+                ChatWritePipeline.Ticket ticket = chatWritePipeline.submit(systemMessage, this::convertNewMessage);
+                parentMessages.remember(systemMessage);
+                forgetIfRetracted(ticket, systemMessage);
+                // Системные сообщения шлёт outbox: доставка засчитывается только после записи в БД
+                ticket.persisted().get(systemAckTimeoutMs, TimeUnit.MILLISECONDS);
+                return ticket.dto();
             }
 
             validateUserAccess(accessToken, refreshToken, language);
 
-            ResponseEntity<Response> userResponse = userService.validateTokenAndGetSubject(accessToken, refreshToken, language);
+            ChatSender sender = senderDirectory.resolve(userId);
             EventMessage userMessage = new EventMessage();
             userMessage.setEventId(eventId);
             userMessage.setSenderId(userId);
             userMessage.setMessage(request.getContent());
             userMessage.setContent(request.getContent());
             userMessage.setSentAt(LocalDateTime.now());
-            userMessage.setSenderName("User " + userId);
+            userMessage.setSenderName(sender.displayName());
             userMessage.setType(MessageType.TEXT);
             userMessage.setIsEdited(false);
             userMessage.setIsDeleted(false);
@@ -190,34 +150,19 @@ public class ChatService {
             if (request.getQuotedMessageId() != null) {
                 userMessage.setParentMessageId(request.getQuotedMessageId());
             }
-            if (userResponse.getBody() != null) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> userInfo = (Map<String, Object>) userResponse.getBody().getResult();
-                String firstName = userInfo.get("firstName") != null ? userInfo.get("firstName").toString() : "";
-                String lastName = userInfo.get("lastName") != null ? userInfo.get("lastName").toString() : "";
-                userMessage.setSenderName(firstName + " " + lastName);
-            }
-            EventMessage savedMessage = messageRepository.save(userMessage);
-            ChatMessageDTO messageDTO = convertToDTO(savedMessage);
-            Map<Long, String> userAvatars = userService.getUsersProfilePicturesForChat(List.of(userId));
-            messageDTO.setSenderAvatarUrl(userAvatars.getOrDefault(userId, ""));
-
-            // Отправляем сообщение через WebSocket
-            messagingTemplate.convertAndSend("/topic/chat/" + eventId, messageDTO);
-
-            // Отправляем push-уведомления участникам
-            Event event = eventsRepository.findEventByEventId(eventId);
-            if (event != null) {
-                String senderName = messageDTO.getSenderName();
-                pushNotificationService.sendNewChatMessageNotification(
-                    event,
-                    senderName,
-                    messageDTO.getContent(),
-                    userId
-                );
-            }
+            ChatWritePipeline.Ticket ticket = chatWritePipeline.submit(userMessage, message -> {
+                ChatMessageDTO dto = convertNewMessage(message);
+                dto.setSenderAvatarUrl(sender.avatarUrl());
+                return dto;
+            });
+            parentMessages.remember(userMessage);
+            forgetIfRetracted(ticket, userMessage);
 
-            return messageDTO;
+            // Push участникам — отдельной стадией после записи
+            chatPushDispatcher.dispatchAfter(ticket.persisted(), ticket.dto());
+            return ticket.dto();
+        } catch (ChatBusyException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error sending message: {}", e.getMessage());
             throw new RuntimeException("Error sending message", e);
@@ -235,6 +180,7 @@ public class ChatService {
         message.setIsEdited(true);
         message.setEditedAt(LocalDateTime.now());
         EventMessage savedMessage = messageRepository.save(message);
+        parentMessages.remember(savedMessage);
         ChatMessageDTO dto = convertToDTO(savedMessage);
         messagingTemplate.convertAndSend("/topic/chat/" + message.getEventId(), dto);
         return dto;
@@ -254,59 +200,106 @@ public class ChatService {
         messagingTemplate.convertAndSend("/topic/chat/" + message.getEventId(), dto);
     }
 
-    @Transactional
+    // Старый эндпоинт: отметка одного сообщения сдвигает водяной знак до него
     public void markMessageAsRead(Long messageId, Long userId) {
         EventMessage message = messageRepository.findById(messageId)
             .orElseThrow(() -> new RuntimeException("Message not found"));
-        List<Long> readBy = message.getReadBy();
-        if (readBy == null) readBy = new ArrayList<>();
-        if (!readBy.contains(userId)) {
-            readBy.add(userId);
-            message.setReadBy(readBy);
-            messageRepository.save(message);
+        watermarkRepository.advance(message.getEventId(), userId, messageId);
+    }
+
+    // Пользователь прочитал чат до upToMessageId включительно — один upsert вместо записи в каждое сообщение.
+    // Водяной знак не опускается, поэтому чужие id отклоняются, а неизвестные (ещё в очереди записи
+    // или несуществующие) ограничиваются последним записанным сообщением ивента
+    public void markReadUpTo(Long eventId, Long userId, Long upToMessageId) {
+        Long messageEventId = messageRepository.findEventIdByMessageId(upToMessageId);
+        if (messageEventId == null) {
+            watermarkRepository.advanceToLatest(eventId, userId);
+        } else if (messageEventId.equals(eventId)) {
+            watermarkRepository.advance(eventId, userId, upToMessageId);
+        } else {
+            throw new IllegalArgumentException("Message " + upToMessageId + " does not belong to event " + eventId);
         }
     }
 
+    public long getUnreadCount(Long eventId, Long userId) {
+        return watermarkRepository.findByEventIdAndUserId(eventId, userId)
+                .map(watermark -> messageRepository.countUnread(eventId, watermark.getLastReadSentAt(), watermark.getLastReadMessageId(), userId))
+                .orElseGet(() -> messageRepository.countUnread(eventId, READ_NOTHING, 0L, userId));
+    }
+
     public Page<ChatMessageDTO> searchMessages(Long eventId, String query, Pageable pageable) {
-        return messageRepository.findByEventIdAndContentContainingIgnoreCase(
-            eventId, query, pageable)
-            .map(this::convertToDTO);
+        Page<EventMessage> messages = messageRepository.findByEventIdAndContentContainingIgnoreCase(
+            eventId, query, pageable);
+        MessageContext context = context(eventId, messages.getContent());
+        return messages.map(message -> convertToDTO(message, context));
     }
 
-    @Transactional
+    // Атомарный INSERT; подписчикам уходит только дельта реакции
     public void addReaction(Long messageId, Long userId, String reactionType) {
-        EventMessage message = messageRepository.findById(messageId)
-            .orElseThrow(() -> new RuntimeException("Message not found"));
-        Map<String, List<Long>> reactions = message.getReactions();
-        if (reactions == null) reactions = new HashMap<>();
-        reactions.computeIfAbsent(reactionType, k -> new ArrayList<>());
-        if (!reactions.get(reactionType).contains(userId)) {
-            reactions.get(reactionType).add(userId);
-            message.setReactions(reactions);
-            messageRepository.save(message);
-            ChatMessageDTO dto = convertToDTO(message);
-            messagingTemplate.convertAndSend("/topic/chat/" + message.getEventId(), dto);
+        Long eventId = findEventId(messageId);
+        if (reactionRepository.add(messageId, reactionType, userId) > 0) {
+            messagingTemplate.convertAndSend("/topic/chat/" + eventId, ChatReactionDelta.added(messageId, reactionType, userId));
         }
     }
 
-    @Transactional
     public void removeReaction(Long messageId, Long userId, String reactionType) {
-        EventMessage message = messageRepository.findById(messageId)
-            .orElseThrow(() -> new RuntimeException("Message not found"));
-        Map<String, List<Long>> reactions = message.getReactions();
-        if (reactions != null && reactions.containsKey(reactionType)) {
-            reactions.get(reactionType).remove(userId);
-            if (reactions.get(reactionType).isEmpty()) {
-                reactions.remove(reactionType);
+        Long eventId = findEventId(messageId);
+        if (reactionRepository.remove(messageId, reactionType, userId) > 0) {
+            messagingTemplate.convertAndSend("/topic/chat/" + eventId, ChatReactionDelta.removed(messageId, reactionType, userId));
+        }
+    }
+
+    private Long findEventId(Long messageId) {
+        Long eventId = messageRepository.findEventIdByMessageId(messageId);
+        if (eventId == null) {
+            throw new RuntimeException("Message not found");
+        }
+        return eventId;
+    }
+
+    private void forgetIfRetracted(ChatWritePipeline.Ticket ticket, EventMessage message) {
+        ticket.persisted().whenComplete((saved, failure) -> {
+            if (failure != null) {
+                parentMessages.forget(message);
+            }
+        });
+    }
+
+    // Имя и аватар из справочника отправителей; системные сообщения остаются как есть
+    private ChatMessageDTO withSender(ChatMessageDTO dto, Map<Long, ChatSender> senders) {
+        ChatSender sender = senders.get(dto.getSenderId());
+        if (sender != null) {
+            dto.setSenderName(sender.displayName());
+            dto.setSenderAvatarUrl(sender.avatarUrl());
+        }
+        return dto;
+    }
+
+    // Цитаты, водяные знаки и реакции для страницы — по одному запросу на всю страницу
+    private MessageContext context(Long eventId, List<EventMessage> messages) {
+        Map<Long, Map<String, List<Long>>> reactions = new HashMap<>();
+        List<Long> messageIds = messages.stream().map(EventMessage::getMessageId).collect(Collectors.toList());
+        if (!messageIds.isEmpty()) {
+            for (MessageReaction reaction : reactionRepository.findByMessageIdInOrderByCreatedAtAsc(messageIds)) {
+                reactions.computeIfAbsent(reaction.getMessageId(), id -> new LinkedHashMap<>())
+                        .computeIfAbsent(reaction.getReaction(), r -> new ArrayList<>())
+                        .add(reaction.getUserId());
             }
-            message.setReactions(reactions);
-            messageRepository.save(message);
-            ChatMessageDTO dto = convertToDTO(message);
-            messagingTemplate.convertAndSend("/topic/chat/" + message.getEventId(), dto);
         }
+        return new MessageContext(parentMessages.forMessages(eventId, messages),
+                watermarkRepository.findByEventId(eventId), reactions);
     }
 
     private ChatMessageDTO convertToDTO(EventMessage message) {
+        return convertToDTO(message, context(message.getEventId(), List.of(message)));
+    }
+
+    // Только что отправленное сообщение ещё никто не прочитал и не отметил реакцией
+    private ChatMessageDTO convertNewMessage(EventMessage message) {
+        return convertToDTO(message, new MessageContext(parentMessages.forMessage(message), List.of(), Map.of()));
+    }
+
+    private ChatMessageDTO convertToDTO(EventMessage message, MessageContext context) {
         ChatMessageDTO dto = ChatMessageDTO.builder()
                 .messageId(message.getMessageId())
                 .eventId(message.getEventId())
@@ -320,27 +313,39 @@ public class ChatService {
                 .isDeleted(message.getIsDeleted())
                 .build();
 
-        if (message.getReadBy() != null) {
-            dto.setReadBy(message.getReadBy());
-        }
+        // readBy для клиентов — все, чей водяной знак по (sent_at, message_id) не ниже этого сообщения
+        dto.setReadBy(context.watermarks().stream()
+                .filter(watermark -> hasRead(watermark, dto.getSentAt(), message.getMessageId()))
+                .map(ChatReadWatermark::getUserId)
+                .collect(Collectors.toList()));
         
-        if (message.getReactions() != null) {
-            dto.setReactions(message.getReactions());
-        }
+        Map<String, List<Long>> reactions = context.reactions().getOrDefault(message.getMessageId(), new LinkedHashMap<>());
+        dto.setReactions(reactions);
+        Map<String, Integer> reactionCounts = new LinkedHashMap<>();
+        reactions.forEach((reaction, users) -> reactionCounts.put(reaction, users.size()));
+        dto.setReactionCounts(reactionCounts);
 
         if (message.getParentMessageId() != null) {
             dto.setParentMessageId(message.getParentMessageId());
-            Optional<EventMessage> parentMessage = messageRepository.findById(message.getParentMessageId());
-            parentMessage.ifPresent(parent -> {
-                dto.setParentMessageContent(parent.getContent());
-                dto.setParentMessageSender(parent.getSenderName());
-                dto.setParentMessageSentAt(parent.getSentAt());
-            });
+            ChatMessageParent parent = context.parents().get(message.getParentMessageId());
+            if (parent != null) {
+                dto.setParentMessageContent(parent.content());
+                dto.setParentMessageSender(parent.senderName());
+                dto.setParentMessageSentAt(parent.sentAt());
+            }
         }
 
         return dto;
     }
 
+    private static boolean hasRead(ChatReadWatermark watermark, LocalDateTime sentAt, Long messageId) {
+        if (sentAt == null) {
+            return false;
+        }
+        int bySentAt = sentAt.compareTo(watermark.getLastReadSentAt());
+        return bySentAt < 0 || (bySentAt == 0 && messageId <= watermark.getLastReadMessageId());
+    }
+
     private void validateUserAccess(String accessToken, String refreshToken, String lang) {
         ResponseEntity<Response> userResponse = userService.validateTokenAndGetSubject(accessToken, refreshToken, lang);
         if (userResponse.getStatusCode().is4xxClientError()) {
@@ -351,4 +356,9 @@ public class ChatService {
     public List<EventMessage> getRawMessagesDebug(Long eventId) {
         return messageRepository.findByEventIdOrderBySentAtAsc(eventId);
     }
+
+    private record MessageContext(Map<Long, ChatMessageParent> parents,
+                                  List<ChatReadWatermark> watermarks,
+                                  Map<Long, Map<String, List<Long>>> reactions) {
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,316 @@
+package com.is.events.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.is.events.exception.ChatBusyException;
+import com.is.events.model.chat.ChatMessageDTO;
+import com.is.events.model.chat.ChatMessageRetraction;
+import com.is.events.model.chat.ChatWriteAck;
+import com.is.events.model.chat.EventMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Запись сообщений чата без транзакции на потоке STOMP/HTTP.
+ * Под блокировкой ивента сообщение получает sent_at и id из заранее выделенного блока sequence, ставится
+ * в очередь и сразу рассылается в /topic/chat/{eventId}. Блоки id у каждого инстанса свои, поэтому message_id
+ * между инстансами не упорядочен во времени: порядок чата и прочитанность считаются по (sent_at, message_id).
+ * Отдельный поток пишет очередь JDBC-пачками (group commit): каждые app.chat.write.flush-interval-ms
+ * или app.chat.write.batch-size сообщений, затем рассылает ChatWriteAck и завершает Ticket.persisted().
+ * Если пачка не записалась, строки пишутся по одной: отзываются (ChatMessageRetraction) только сбойные.
+ * Очередь ограничена: если она не освобождается за app.chat.write.offer-timeout-ms, отправка отклоняется.
+ */
+@Slf4j
+@Service
+public class ChatWritePipeline {
+
+    private static final int EVENT_LOCK_STRIPES = 64;
+    private static final int FLUSH_ATTEMPTS = 3;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO events.event_messages (message_id, event_id, sender_id, sender_name, content, message,
+                sent_at, timestamp, message_type, is_edited, is_deleted, read_by, reactions, parent_message_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?::jsonb, ?)
+            """;
+
+    private static final String NEXT_IDS_SQL = """
+            SELECT nextval(pg_get_serial_sequence('events.event_messages', 'message_id'))
+            FROM generate_series(1, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Timer flushTimer;
+
+    private final Object[] eventLocks = new Object[EVENT_LOCK_STRIPES];
+    private final BlockingQueue<PendingWrite> queue;
+    private final List<Long> reservedIds = new ArrayList<>();
+    private volatile boolean running;
+    private Thread writer;
+
+    @Value("${app.chat.write.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.chat.write.flush-interval-ms:5}")
+    private long flushIntervalMs;
+
+    @Value("${app.chat.write.offer-timeout-ms:200}")
+    private long offerTimeoutMs;
+
+    @Value("${app.chat.write.id-block-size:50}")
+    private int idBlockSize;
+
+    public ChatWritePipeline(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             SimpMessagingTemplate messagingTemplate,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.chat.write.queue-capacity:10000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < EVENT_LOCK_STRIPES; i++) {
+            eventLocks[i] = new Object();
+        }
+        Gauge.builder("chat.write.queue", queue, BlockingQueue::size).register(meterRegistry);
+        this.flushTimer = meterRegistry.timer("chat.write.flush");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "chat-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Перед остановкой дописываем всё, что уже разослано клиентам
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<PendingWrite> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+    }
+
+    /**
+     * Присваивает id, ставит сообщение в очередь записи и рассылает его подписчикам ивента.
+     * toDTO вызывается уже с присвоенным id.
+     */
+    public Ticket submit(EventMessage message, Function<EventMessage, ChatMessageDTO> toDTO) {
+        Long eventId = message.getEventId();
+        CompletableFuture<EventMessage> persisted = new CompletableFuture<>();
+        synchronized (eventLocks[Math.floorMod(eventId.hashCode(), EVENT_LOCK_STRIPES)]) {
+            LocalDateTime now = LocalDateTime.now();
+            message.setSentAt(now);
+            if (message.getTimestamp() != null) {
+                message.setTimestamp(now);
+            }
+            message.setMessageId(nextId());
+            try {
+                if (!queue.offer(new PendingWrite(message, persisted), offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    log.warn("Chat write queue is full, rejecting message for event {}", eventId);
+                    throw new ChatBusyException("Chat is busy, try again later");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ChatBusyException("Interrupted while queueing chat message");
+            }
+            ChatMessageDTO dto = toDTO.apply(message);
+            messagingTemplate.convertAndSend("/topic/chat/" + eventId, dto);
+            return new Ticket(dto, persisted);
+        }
+    }
+
+    private synchronized Long nextId() {
+        if (reservedIds.isEmpty()) {
+            reservedIds.addAll(jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, idBlockSize));
+        }
+        return reservedIds.remove(0);
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingWrite first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Копим пачку не дольше flush-interval-ms после первого сообщения
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Chat writer loop failed: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flushTimer.record(() -> insert(batch));
+                batch.forEach(write -> acknowledge(write, ChatWriteAck.PERSISTED));
+                return;
+            } catch (Exception e) {
+                if (!isTransient(e) || attempt >= FLUSH_ATTEMPTS) {
+                    log.warn("Batch insert of {} chat messages failed, falling back to row-by-row: {}", batch.size(), e.getMessage());
+                    break;
+                }
+                log.warn("Failed to persist {} chat messages (attempt {}): {}", batch.size(), attempt, e.getMessage());
+                if (!backoff(attempt)) {
+                    break;
+                }
+            }
+        }
+
+        // Пачка уже разослана клиентам: одна плохая строка не должна терять сообщения соседей
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            try {
+                insert(List.of(write));
+                acknowledge(write, ChatWriteAck.PERSISTED);
+            } catch (Exception e) {
+                if (isTransient(e)) {
+                    // БД недоступна — оставшиеся строки тоже не запишутся
+                    log.error("Chat database unavailable, failing {} messages", batch.size() - i, e);
+                    batch.subList(i, batch.size()).forEach(rest -> reject(rest, e));
+                    return;
+                }
+                log.error("Failed to persist chat message {} for event {}: {}",
+                        write.message().getMessageId(), write.message().getEventId(), e.getMessage());
+                reject(write, e);
+            }
+        }
+    }
+
+    private void insert(List<PendingWrite> writes) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, writes, writes.size(), (ps, write) -> {
+                    EventMessage m = write.message();
+                    ps.setLong(1, m.getMessageId());
+                    ps.setLong(2, m.getEventId());
+                    ps.setObject(3, m.getSenderId(), Types.BIGINT);
+                    ps.setString(4, m.getSenderName());
+                    ps.setString(5, m.getContent());
+                    ps.setString(6, m.getMessage());
+                    ps.setTimestamp(7, m.getSentAt() != null ? Timestamp.valueOf(m.getSentAt()) : null);
+                    ps.setTimestamp(8, m.getTimestamp() != null ? Timestamp.valueOf(m.getTimestamp()) : null);
+                    ps.setString(9, m.getType() != null ? m.getType().name() : null);
+                    ps.setObject(10, m.getIsEdited(), Types.BOOLEAN);
+                    ps.setObject(11, m.getIsDeleted(), Types.BOOLEAN);
+                    ps.setString(12, toJson(m.getReadBy()));
+                    ps.setString(13, toJson(m.getReactions()));
+                    ps.setObject(14, m.getParentMessageId(), Types.BIGINT);
+                }));
+    }
+
+    // Сбой соединения/транзакции, а не проблема данных конкретной строки
+    private static boolean isTransient(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof TransactionException;
+    }
+
+    private static boolean backoff(int attempt) {
+        try {
+            Thread.sleep(50L * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Сообщение уже показано клиентам: отзываем его в основном топике и шлём FAILED в /ack
+    private void reject(PendingWrite write, Exception failure) {
+        EventMessage message = write.message();
+        try {
+            messagingTemplate.convertAndSend("/topic/chat/" + message.getEventId(),
+                    ChatMessageRetraction.failed(message.getMessageId(), message.getEventId()));
+            messagingTemplate.convertAndSend("/topic/chat/" + message.getEventId() + "/ack",
+                    new ChatWriteAck(message.getMessageId(), message.getEventId(), ChatWriteAck.FAILED));
+        } catch (Exception e) {
+            log.warn("Failed to send chat retraction for message {}: {}", message.getMessageId(), e.getMessage());
+        }
+        write.persisted().completeExceptionally(failure);
+    }
+
+    private void acknowledge(PendingWrite write, String status) {
+        EventMessage message = write.message();
+        try {
+            messagingTemplate.convertAndSend("/topic/chat/" + message.getEventId() + "/ack",
+                    new ChatWriteAck(message.getMessageId(), message.getEventId(), status));
+        } catch (Exception e) {
+            log.warn("Failed to send chat write ack for message {}: {}", message.getMessageId(), e.getMessage());
+        }
+        write.persisted().complete(message);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return value != null ? objectMapper.writeValueAsString(value) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize chat message field", e);
+        }
+    }
+
+    // dto уже разослан; persisted завершается после коммита пачки с этим сообщением
+    public record Ticket(ChatMessageDTO dto, CompletableFuture<EventMessage> persisted) {
+    }
+
+    private record PendingWrite(EventMessage message, CompletableFuture<EventMessage> persisted) {
+    }
+}
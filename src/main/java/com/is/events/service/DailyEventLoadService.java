@@ -0,0 +1,152 @@
+package com.is.events.service;
+
+import com.is.events.model.CurrentParticipants;
+import com.is.events.model.Event;
+import com.is.events.model.EventLifecycleEvent;
+import com.is.events.model.UserDailyEventLoadId;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.repository.UserDailyEventLoadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Дневная нагрузка пользователя (user_id, дата) → {организатор, участник, обе роли}.
+ * Проверки доступности читают одну строку (с LRU-кэшем), лимит 3 ивента в день
+ * проверяется и резервируется одним условным upsert'ом.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyEventLoadService {
+
+    public static final int MAX_EVENTS_PER_DAY = 3;
+    private static final int CACHE_SIZE = 10_000;
+    private static final Set<EventStatus> INACTIVE_STATUSES =
+            EnumSet.of(EventStatus.REJECTED, EventStatus.EXPIRED, EventStatus.CANCELLED, EventStatus.COMPLETED);
+
+    private final UserDailyEventLoadRepository userDailyEventLoadRepository;
+
+    private final Map<UserDailyEventLoadId, DailyLoad> cache = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UserDailyEventLoadId, DailyLoad> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    public DailyLoad getLoad(Long userId, LocalDate date) {
+        UserDailyEventLoadId key = new UserDailyEventLoadId(userId, date);
+        DailyLoad cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        DailyLoad load = userDailyEventLoadRepository.findById(key)
+                .map(row -> new DailyLoad(
+                        Objects.requireNonNullElse(row.getAsOrganizer(), 0),
+                        Objects.requireNonNullElse(row.getAsParticipant(), 0),
+                        Objects.requireNonNullElse(row.getAsBoth(), 0)))
+                .orElse(DailyLoad.EMPTY);
+        cache.put(key, load);
+        return load;
+    }
+
+    // false — у пользователя уже MAX_EVENTS_PER_DAY ивентов на эту дату
+    public boolean tryAddOrganizedEvent(Long userId, LocalDate date) {
+        return apply(userId, date, 1, 0, 0, MAX_EVENTS_PER_DAY);
+    }
+
+    // Организатор, вступающий в свой же ивент, не добавляет уникальный ивент — лимит не проверяется
+    public boolean tryAddParticipation(Long userId, LocalDate date, boolean isOrganizer) {
+        return isOrganizer
+                ? apply(userId, date, 0, 1, 1, Integer.MAX_VALUE)
+                : apply(userId, date, 0, 1, 0, MAX_EVENTS_PER_DAY);
+    }
+
+    public static boolean isActive(EventStatus status) {
+        return !INACTIVE_STATUSES.contains(status);
+    }
+
+    // Синхронно, в транзакции изменения ивента. Организатор при создании и вступление резервируются в EventsService
+    @EventListener
+    public void onEventLifecycle(EventLifecycleEvent lifecycleEvent) {
+        Event event = lifecycleEvent.getEvent();
+        Long organizerId = event.getOrganizerEvent() != null ? event.getOrganizerEvent().getOrganizerId() : null;
+        LocalDate date = event.getDateTime().toLocalDate();
+        switch (lifecycleEvent.getType()) {
+            case CREATED -> {
+                if (isActive(event.getStatus())) {
+                    participantIds(event).forEach(participantId -> applyParticipant(participantId, organizerId, date, 1));
+                }
+            }
+            case PARTICIPANT_LEFT -> {
+                if (isActive(event.getStatus())) {
+                    applyParticipant(lifecycleEvent.getUserId(), organizerId, date, -1);
+                }
+            }
+            case STATUS_CHANGED -> {
+                boolean wasActive = lifecycleEvent.getPreviousStatus() == null || isActive(lifecycleEvent.getPreviousStatus());
+                boolean active = isActive(event.getStatus());
+                if (wasActive == active) {
+                    return;
+                }
+                int delta = active ? 1 : -1;
+                if (organizerId != null) {
+                    apply(organizerId, date, delta, 0, 0, Integer.MAX_VALUE);
+                }
+                participantIds(event).forEach(participantId -> applyParticipant(participantId, organizerId, date, delta));
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void applyParticipant(Long userId, Long organizerId, LocalDate date, int delta) {
+        apply(userId, date, 0, delta, userId.equals(organizerId) ? delta : 0, Integer.MAX_VALUE);
+    }
+
+    private boolean apply(Long userId, LocalDate date, int organizerDelta, int participantDelta, int bothDelta, int maxEvents) {
+        boolean applied = userDailyEventLoadRepository.applyDelta(
+                userId, date, organizerDelta, participantDelta, bothDelta, maxEvents) > 0;
+        evict(new UserDailyEventLoadId(userId, date));
+        return applied;
+    }
+
+    // Сбрасываем сразу и после завершения транзакции, чтобы не закэшировать незакоммиченное значение
+    private void evict(UserDailyEventLoadId key) {
+        cache.remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.remove(key);
+                }
+            });
+        }
+    }
+
+    private static List<Long> participantIds(Event event) {
+        if (event.getCurrentParticipants() == null || event.getCurrentParticipants().getParticipants() == null) {
+            return List.of();
+        }
+        return event.getCurrentParticipants().getParticipants().stream()
+                .map(CurrentParticipants.Participant::getParticipantId)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public record DailyLoad(int asOrganizer, int asParticipant, int asBoth) {
+        static final DailyLoad EMPTY = new DailyLoad(0, 0, 0);
+
+        // Уникальные ивенты: организатор + участник - обе роли
+        public int total() {
+            return asOrganizer + asParticipant - asBoth;
+        }
+    }
+}
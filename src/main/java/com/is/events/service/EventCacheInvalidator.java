@@ -0,0 +1,135 @@
+package com.is.events.service;
+
+import com.is.events.model.Event;
+import com.is.events.model.EventLifecycleEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Ключи и инвалидация кэшей events / eventsByCity / organizationEvents.
+ * Городская лента (eventsByCity с CityCacheKey) версионируется по городу ивента.
+ * В ключ входит версия площадки (для events — сумма версий дней диапазона), которая растёт при каждом
+ * изменении ивента. Поэтому страница, загруженная до коммита и положенная в кэш после инвалидации,
+ * остаётся под старым ключом и больше не читается. Вдобавок из кэша сразу удаляются ровно те записи,
+ * чья площадка и диапазон дат содержат изменённый ивент.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventCacheInvalidator {
+
+    // Диапазоны длиннее этого версионируются по площадке целиком, а не по дням
+    private static final int MAX_DAY_BUCKETS = 400;
+    private static final int DAY_VERSIONS_RETENTION_DAYS = 30;
+
+    private final CacheManager cacheManager;
+
+    private final Map<Long, AtomicLong> placeVersions = new ConcurrentHashMap<>();
+    private final Map<PlaceDay, AtomicLong> dayVersions = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> cityVersions = new ConcurrentHashMap<>();
+
+    // Ключ для ленты площадки за период; null-даты — как в getAllEvents (сегодня + месяц)
+    public PlaceCacheKey rangeKey(long placeId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        LocalDate from = startDate != null ? startDate : LocalDate.now();
+        LocalDate to = endDate != null ? endDate : from.plusMonths(1);
+        long days = ChronoUnit.DAYS.between(from, to);
+        long version;
+        if (days < 0 || days > MAX_DAY_BUCKETS) {
+            version = placeVersion(placeId);
+        } else {
+            version = 0;
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                AtomicLong dayVersion = dayVersions.get(new PlaceDay(placeId, day));
+                version += dayVersion != null ? dayVersion.get() : 0;
+            }
+        }
+        return new PlaceCacheKey(placeId, from, to, version, String.valueOf(pageable));
+    }
+
+    // Ключ для выборок по площадке без диапазона дат
+    public PlaceCacheKey placeKey(long placeId, Object... parts) {
+        return new PlaceCacheKey(placeId, null, null, placeVersion(placeId), Arrays.deepToString(parts));
+    }
+
+    // Ключ для городской ленты; версия города растёт при изменении любого ивента в нём
+    public CityCacheKey cityKey(int cityId, Object... parts) {
+        AtomicLong version = cityVersions.get(cityId);
+        return new CityCacheKey(cityId, version != null ? version.get() : 0, Arrays.deepToString(parts));
+    }
+
+    // После коммита, чтобы перечитанная страница уже видела изменение; без транзакции (планировщики) — сразу
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventLifecycle(EventLifecycleEvent lifecycleEvent) {
+        Event event = lifecycleEvent.getEvent();
+        if (event.getPlaceId() == null || event.getDateTime() == null) {
+            return;
+        }
+        invalidate(event.getPlaceId(), event.getDateTime().toLocalDate());
+        if (event.getCityId() != null) {
+            invalidateCity(event.getCityId());
+        }
+    }
+
+    public void invalidate(Long placeId, LocalDate date) {
+        dayVersions.computeIfAbsent(new PlaceDay(placeId, date), key -> new AtomicLong()).incrementAndGet();
+        placeVersions.computeIfAbsent(placeId, key -> new AtomicLong()).incrementAndGet();
+
+        evict("events", key -> key.placeId().equals(placeId) && key.covers(date));
+        evict("eventsByCity", key -> key.placeId().equals(placeId));
+        evict("organizationEvents", key -> key.placeId().equals(placeId));
+        log.debug("Invalidated event caches for place {} on {}", placeId, date);
+    }
+
+    public void invalidateCity(Integer cityId) {
+        cityVersions.computeIfAbsent(cityId, key -> new AtomicLong()).incrementAndGet();
+        Cache cache = cacheManager.getCache("eventsByCity");
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            nativeCache.asMap().keySet().removeIf(key -> key instanceof CityCacheKey cityKey && cityKey.cityId().equals(cityId));
+        }
+    }
+
+    // Версии старых дней больше не нужны: записи с ними давно вытеснены по TTL
+    @Scheduled(cron = "0 30 0 * * ?")
+    public void pruneDayVersions() {
+        LocalDate threshold = LocalDate.now().minusDays(DAY_VERSIONS_RETENTION_DAYS);
+        dayVersions.keySet().removeIf(key -> key.day().isBefore(threshold));
+    }
+
+    private long placeVersion(long placeId) {
+        AtomicLong version = placeVersions.get(placeId);
+        return version != null ? version.get() : 0;
+    }
+
+    private void evict(String cacheName, Predicate<PlaceCacheKey> affected) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            nativeCache.asMap().keySet().removeIf(key -> key instanceof PlaceCacheKey placeKey && affected.test(placeKey));
+        }
+    }
+
+    public record PlaceCacheKey(Long placeId, LocalDate from, LocalDate to, long version, String query) {
+        boolean covers(LocalDate date) {
+            return from == null || to == null || (!date.isBefore(from) && !date.isAfter(to));
+        }
+    }
+
+    public record CityCacheKey(Integer cityId, long version, String query) {
+    }
+
+    private record PlaceDay(Long placeId, LocalDate day) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.is.events.service;
+
+import com.is.auth.service.UserAvatarCache;
+import com.is.events.dto.CheckInEventDTO;
+import com.is.events.dto.EventDTO;
+import com.is.events.dto.EventFields;
+import com.is.events.dto.OrganizerDTO;
+import com.is.events.dto.ParticipantDTO;
+import com.is.events.model.CurrentParticipants;
+import com.is.events.model.Event;
+import com.is.events.model.UserActivityTracking;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.repository.UserActivityTrackingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Собирает EventDTO сразу для страницы/списка событий.
+ * Все id организаторов и участников собираются заранее, аватары берутся из общего UserAvatarCache
+ * (промахи одним запросом), флаги первого создания ивента — одним IN-запросом.
+ * С EventFields собираются только запрошенные секции, лишние запросы не выполняются.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventDTOAssembler {
+
+    private final UserActivityTrackingRepository userActivityTrackingRepository;
+    private final UserAvatarCache userAvatarCache;
+
+    public Page<EventDTO> toDTOPage(Page<Event> events) {
+        UserLookups lookups = resolveLookups(events.getContent());
+        return events.map(event -> buildDTO(event, lookups, EventFields.ALL));
+    }
+
+    public List<EventDTO> toDTOs(List<Event> events) {
+        return toDTOs(events, EventFields.ALL);
+    }
+
+    public List<EventDTO> toDTOs(List<Event> events, EventFields fields) {
+        UserLookups lookups = resolveLookups(events, fields);
+        return events.stream()
+                .map(event -> buildDTO(event, lookups, fields))
+                .collect(Collectors.toList());
+    }
+
+    public EventDTO toDTO(Event event) {
+        return toDTO(event, EventFields.ALL);
+    }
+
+    public EventDTO toDTO(Event event, EventFields fields) {
+        return buildDTO(event, resolveLookups(List.of(event), fields), fields);
+    }
+
+    public List<CheckInEventDTO> toCheckInDTOs(List<Event> events, Long userId) {
+        UserLookups lookups = resolveLookups(events);
+        return events.stream()
+                .map(event -> buildCheckInDTO(event, userId, lookups))
+                .collect(Collectors.toList());
+    }
+
+    private UserLookups resolveLookups(Collection<Event> events) {
+        return resolveLookups(events, EventFields.ALL);
+    }
+
+    private UserLookups resolveLookups(Collection<Event> events, EventFields fields) {
+        boolean withOrganizer = fields.includes(EventFields.Section.ORGANIZER);
+        boolean withParticipants = fields.includes(EventFields.Section.PARTICIPANTS);
+        Set<Long> organizerIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (Event event : events) {
+            if (withOrganizer && event.getOrganizerEvent() != null && event.getOrganizerEvent().getOrganizerId() != null) {
+                organizerIds.add(event.getOrganizerEvent().getOrganizerId());
+            }
+            if (withParticipants && event.getCurrentParticipants() != null && event.getCurrentParticipants().getParticipants() != null) {
+                event.getCurrentParticipants().getParticipants().stream()
+                        .map(CurrentParticipants.Participant::getParticipantId)
+                        .filter(Objects::nonNull)
+                        .forEach(userIds::add);
+            }
+        }
+        userIds.addAll(organizerIds);
+
+        Map<Long, String> avatars = userIds.isEmpty() ? Collections.emptyMap() : userAvatarCache.getAvatars(userIds);
+
+        Set<Long> firstEventCreators = organizerIds.isEmpty()
+                ? Collections.emptySet()
+                : userActivityTrackingRepository.findAllByUserIdIn(organizerIds).stream()
+                        .filter(UserActivityTracking::isFirstEventCreation)
+                        .map(UserActivityTracking::getUserId)
+                        .collect(Collectors.toSet());
+
+        return new UserLookups(avatars, firstEventCreators);
+    }
+
+    private EventDTO buildDTO(Event event, UserLookups lookups, EventFields fields) {
+        EventDTO dto = new EventDTO();
+        dto.setEventId(event.getEventId());
+        dto.setTitle(event.getTitle());
+        dto.setDateTime(event.getDateTime());
+        dto.setStatus(event.getStatus().name());
+        dto.setPlaceId(event.getPlaceId());
+
+        if (fields.includes(EventFields.Section.DETAILS)) {
+            dto.setDescription(event.getDescription());
+            dto.setAdditionalInfo(event.getAdditionalInfo());
+            dto.setLocation(event.getSportEvent().getLocation());
+        }
+
+        if (fields.includes(EventFields.Section.ORGANIZER) && event.getOrganizerEvent() != null) {
+            dto.setFirstEventCreation(lookups.firstEventCreators().contains(event.getOrganizerEvent().getOrganizerId()));
+            dto.setOrganizer(buildOrganizer(event, lookups));
+        }
+
+        boolean hasParticipants = event.getCurrentParticipants() != null && event.getCurrentParticipants().getParticipants() != null && !event.getCurrentParticipants().getParticipants().isEmpty();
+        if (!fields.includes(EventFields.Section.PARTICIPANTS)) {
+            dto.setParticipants(null);
+            dto.setParticipantsCount(hasParticipants ? event.getCurrentParticipants().getSize() : 0);
+        } else if (hasParticipants) {
+            dto.setParticipants(buildParticipants(event, lookups));
+            dto.setParticipantsCount(event.getCurrentParticipants().getSize());
+        } else {
+            dto.setParticipants(new ArrayList<>());
+            dto.setParticipantsCount(0);
+        }
+
+        dto.setJoinable(event.getStatus() == EventStatus.OPEN || event.getStatus() == EventStatus.PENDING_APPROVAL || event.getStatus() == EventStatus.CONFIRMED);
+        dto.setMaxParticipants(event.getSportEvent().getMaxParticipants());
+        dto.setEventType(event.getSportEvent().getSportType());
+        dto.setPrice(event.getSportEvent().getPrice());
+
+        return dto;
+    }
+
+    private CheckInEventDTO buildCheckInDTO(Event event, Long userId, UserLookups lookups) {
+        // Определяем роль пользователя
+        boolean isOrganizer = event.getOrganizerEvent() != null &&
+                event.getOrganizerEvent().getOrganizerId().equals(userId);
+
+        String userRole = isOrganizer ? "ORGANIZER" : "PARTICIPANT";
+
+        // Определяем статус пользователя в ивенте
+        String userStatus = "ACTIVE";
+        if (event.getCurrentParticipants() != null) {
+            userStatus = event.getCurrentParticipants().getParticipants().stream()
+                    .filter(p -> p.getParticipantId().equals(userId))
+                    .map(CurrentParticipants.Participant::getStatus)
+                    .findFirst()
+                    .orElse(isOrganizer ? "ORGANIZER" : "ACTIVE");
+        }
+
+        // Определяем возможности пользователя
+        boolean canStart = isOrganizer && event.getStatus() == EventStatus.CONFIRMED
+                && !event.getDateTime().minusMinutes(30).isAfter(LocalDateTime.now());
+        boolean canCheckIn = "ACTIVE".equals(userStatus);
+
+        List<ParticipantDTO> participants = event.getCurrentParticipants() != null
+                ? buildParticipants(event, lookups)
+                : new ArrayList<>();
+        OrganizerDTO organizer = event.getOrganizerEvent() != null ? buildOrganizer(event, lookups) : null;
+
+        return CheckInEventDTO.builder()
+                .eventId(event.getEventId())
+                .title(event.getTitle())
+                .description(event.getDescription())
+                .dateTime(event.getDateTime())
+                .status(event.getStatus().name())
+                .userRole(userRole)
+                .canStart(canStart)
+                .canCheckIn(canCheckIn)
+                .userStatus(userStatus)
+                .participants(participants)
+                .organizer(organizer)
+                .location(event.getSportEvent().getLocation())
+                .price(event.getSportEvent().getPrice())
+                .additionalInfo(event.getAdditionalInfo())
+                .build();
+    }
+
+    private OrganizerDTO buildOrganizer(Event event, UserLookups lookups) {
+        return OrganizerDTO.builder()
+                .organizerId(event.getOrganizerEvent().getOrganizerId())
+                .name(event.getOrganizerEvent().getOrganizerName())
+                .email(event.getOrganizerEvent().getEmail())
+                .phoneNumber(event.getOrganizerEvent().getPhoneNumber())
+                .organizationType("INDIVIDUAL")
+                .rating(4.8)
+                .profilePictureUrl(lookups.avatars().get(event.getOrganizerEvent().getOrganizerId()))
+                .build();
+    }
+
+    private List<ParticipantDTO> buildParticipants(Event event, UserLookups lookups) {
+        return event.getCurrentParticipants().getParticipants().stream()
+                .map(participant -> new ParticipantDTO(
+                        participant.getParticipantId(),
+                        participant.getParticipantName(),
+                        participant.getJoinedAt(),
+                        lookups.avatars().get(participant.getParticipantId()),
+                        participant.getStatus()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    private record UserLookups(Map<Long, String> avatars, Set<Long> firstEventCreators) {
+    }
+}
@@ -0,0 +1,325 @@
+package com.is.events.service;
+
+import com.is.events.dto.EventCardDTO;
+import com.is.events.model.Event;
+import com.is.events.model.EventFilterDTO;
+import com.is.events.model.EventLifecycleEvent;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.repository.EventsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс предстоящих OPEN / CONFIRMED ивентов в памяти для ленты поиска.
+ * Колонки — примитивные массивы (дата, цена, площадка, свободные места) по слотам,
+ * статусы и виды спорта — битсеты слотов, так что фильтр и сортировка страницы обходятся без Postgres.
+ * Поддерживается инкрементально по EventLifecycleEvent после коммита и периодически сверяется с БД.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EventDiscoveryIndex {
+
+    public static final Set<EventStatus> INDEXED_STATUSES = EnumSet.of(EventStatus.OPEN, EventStatus.CONFIRMED);
+    // Поля сортировки, которые индекс умеет; /discover принимает только их, чтобы индекс и БД отдавали одно и то же
+    public static final Set<String> SORT_PROPERTIES = Set.of("dateTime", "price");
+
+    private final EventsRepository eventsRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns(16);
+    private boolean ready;
+    // Изменения, пришедшие во время перестроения; проигрываются поверх свежего снимка
+    private List<Event> replayLog;
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return ready;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Page<EventCardDTO> find(EventFilterDTO filter, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            int[] slots = columns.match(filter, toEpoch(LocalDateTime.now()));
+            Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.desc("dateTime"));
+            columns.sort(slots, order);
+            int from = (int) Math.min(pageable.getOffset(), slots.length);
+            int to = Math.min(from + pageable.getPageSize(), slots.length);
+            List<EventCardDTO> content = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                content.add(columns.cards[slots[i]]);
+            }
+            return new PageImpl<>(content, pageable, slots.length);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventLifecycle(EventLifecycleEvent lifecycleEvent) {
+        Event event = lifecycleEvent.getEvent();
+        lock.writeLock().lock();
+        try {
+            columns.apply(event, toEpoch(LocalDateTime.now()));
+            if (replayLog != null) {
+                replayLog.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to build event discovery index, falling back to database: {}", e.getMessage());
+        }
+    }
+
+    // Сверка с БД: снимок строится заново, при расхождениях заменяет текущий
+    @Scheduled(initialDelay = 600000, fixedDelay = 600000) // 600000 ms = 10 минут
+    public void verifyConsistency() {
+        try {
+            int mismatches = rebuild();
+            if (mismatches > 0) {
+                log.warn("Event discovery index was out of sync with database: {} mismatched events", mismatches);
+            }
+        } catch (Exception e) {
+            log.error("Event discovery index consistency check failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Перестраивает индекс из БД и возвращает число ивентов, которые расходились с прежним состоянием.
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            replayLog = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Event> events;
+        try {
+            events = eventsRepository.findByStatusInAndDateTimeAfter(INDEXED_STATUSES, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replayLog = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        long now = toEpoch(LocalDateTime.now());
+        Columns fresh = new Columns(Math.max(16, events.size() * 2));
+        events.forEach(event -> fresh.apply(event, now));
+
+        lock.writeLock().lock();
+        try {
+            replayLog.forEach(event -> fresh.apply(event, now));
+            int mismatches = ready ? columns.countDifferences(fresh, now) : 0;
+            columns = fresh;
+            ready = true;
+            replayLog = null;
+            log.info("Event discovery index rebuilt with {} events", fresh.slotByEventId.size());
+            return mismatches;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long toEpoch(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    // Колоночное хранилище по слотам; все методы вызываются под локом индекса
+    private static final class Columns {
+        private long[] eventIds;
+        private long[] dateTimes;
+        private double[] prices;
+        private long[] placeIds;
+        private int[] freeSpots;
+        private EventCardDTO[] cards;
+
+        private final BitSet live = new BitSet();
+        private final Map<EventStatus, BitSet> byStatus = new EnumMap<>(EventStatus.class);
+        private final Map<String, BitSet> bySportType = new HashMap<>();
+        private final Map<Long, Integer> slotByEventId = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private int highWater;
+
+        Columns(int capacity) {
+            eventIds = new long[capacity];
+            dateTimes = new long[capacity];
+            prices = new double[capacity];
+            placeIds = new long[capacity];
+            freeSpots = new int[capacity];
+            cards = new EventCardDTO[capacity];
+        }
+
+        void apply(Event event, long now) {
+            boolean indexed = INDEXED_STATUSES.contains(event.getStatus())
+                    && event.getDateTime() != null && toEpoch(event.getDateTime()) > now;
+            if (indexed) {
+                put(event);
+            } else {
+                remove(event.getEventId());
+            }
+        }
+
+        private void put(Event event) {
+            remove(event.getEventId());
+            int slot = freeSlots.isEmpty() ? highWater++ : freeSlots.pop();
+            ensureCapacity(slot + 1);
+
+            int maxParticipants = event.getSportEvent() != null && event.getSportEvent().getMaxParticipants() != null
+                    ? event.getSportEvent().getMaxParticipants() : 0;
+            int participants = event.getCurrentParticipants() != null ? event.getCurrentParticipants().getSize() : 0;
+            Double price = event.getSportEvent() != null ? event.getSportEvent().getPrice() : null;
+            String sportType = event.getSportEvent() != null ? event.getSportEvent().getSportType() : null;
+
+            eventIds[slot] = event.getEventId();
+            dateTimes[slot] = toEpoch(event.getDateTime());
+            // Ивент без цены считается бесплатным, как и в EventSpecification
+            prices[slot] = price != null ? price : 0;
+            placeIds[slot] = event.getPlaceId();
+            freeSpots[slot] = maxParticipants - participants;
+            cards[slot] = new EventCardDTO(event.getEventId(), event.getTitle(), event.getDateTime(), event.getStatus(),
+                    event.getPlaceId(), sportType, price, participants, maxParticipants);
+
+            live.set(slot);
+            byStatus.computeIfAbsent(event.getStatus(), key -> new BitSet()).set(slot);
+            if (sportType != null) {
+                bySportType.computeIfAbsent(sportType, key -> new BitSet()).set(slot);
+            }
+            slotByEventId.put(event.getEventId(), slot);
+        }
+
+        private void remove(Long eventId) {
+            Integer slot = slotByEventId.remove(eventId);
+            if (slot == null) {
+                return;
+            }
+            live.clear(slot);
+            byStatus.values().forEach(bits -> bits.clear(slot));
+            String sportType = cards[slot].eventType();
+            if (sportType != null && bySportType.containsKey(sportType)) {
+                bySportType.get(sportType).clear(slot);
+            }
+            cards[slot] = null;
+            freeSlots.push(slot);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= eventIds.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, eventIds.length * 2);
+            eventIds = Arrays.copyOf(eventIds, newCapacity);
+            dateTimes = Arrays.copyOf(dateTimes, newCapacity);
+            prices = Arrays.copyOf(prices, newCapacity);
+            placeIds = Arrays.copyOf(placeIds, newCapacity);
+            freeSpots = Arrays.copyOf(freeSpots, newCapacity);
+            cards = Arrays.copyOf(cards, newCapacity);
+        }
+
+        int[] match(EventFilterDTO filter, long now) {
+            BitSet candidates = (BitSet) live.clone();
+            if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+                candidates.and(bitsOf(byStatus.get(parseStatus(filter.getStatus()))));
+            }
+            if (filter.getEventType() != null && !filter.getEventType().isEmpty()) {
+                candidates.and(bitsOf(bySportType.get(filter.getEventType())));
+            }
+
+            long from = filter.getDateTimeFrom() != null ? Math.max(now, toEpoch(filter.getDateTimeFrom())) : now;
+            long to = filter.getDateTimeTo() != null ? toEpoch(filter.getDateTimeTo()) : Long.MAX_VALUE;
+            Long placeId = filter.getPlaceId() != null ? Long.valueOf(filter.getPlaceId()) : null;
+            double priceMin = filter.getPriceMin() != null ? filter.getPriceMin() : Double.NEGATIVE_INFINITY;
+            double priceMax = filter.getPriceMax() != null ? filter.getPriceMax() : Double.POSITIVE_INFINITY;
+            int spots = filter.getAvailableSpots() != null ? filter.getAvailableSpots() : Integer.MIN_VALUE;
+
+            int[] result = new int[candidates.cardinality()];
+            int count = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                if (dateTimes[slot] < from || dateTimes[slot] > to
+                        || prices[slot] < priceMin || prices[slot] > priceMax
+                        || freeSpots[slot] < spots
+                        || (placeId != null && placeIds[slot] != placeId)) {
+                    continue;
+                }
+                result[count++] = slot;
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        // Сортировка по dateTime или price, при равенстве — по eventId в том же направлении
+        void sort(int[] slots, Sort.Order order) {
+            Comparator<Integer> comparator = "price".equals(order.getProperty())
+                    ? Comparator.comparingDouble(slot -> prices[slot])
+                    : Comparator.comparingLong(slot -> dateTimes[slot]);
+            comparator = comparator.thenComparingLong(slot -> eventIds[slot]);
+            if (order.isDescending()) {
+                comparator = comparator.reversed();
+            }
+            Integer[] boxed = Arrays.stream(slots).boxed().toArray(Integer[]::new);
+            Arrays.sort(boxed, comparator);
+            for (int i = 0; i < boxed.length; i++) {
+                slots[i] = boxed[i];
+            }
+        }
+
+        int countDifferences(Columns other, long now) {
+            int differences = 0;
+            Set<Long> ids = new HashSet<>(slotByEventId.keySet());
+            ids.addAll(other.slotByEventId.keySet());
+            for (Long eventId : ids) {
+                Integer slot = slotByEventId.get(eventId);
+                Integer otherSlot = other.slotByEventId.get(eventId);
+                // Прошедшие ивенты просто не попадают в выдачу, это не расхождение
+                if (otherSlot == null && slot != null && dateTimes[slot] <= now) {
+                    continue;
+                }
+                if (slot == null || otherSlot == null || !cards[slot].equals(other.cards[otherSlot])) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+
+        private static BitSet bitsOf(BitSet bits) {
+            return bits != null ? bits : new BitSet();
+        }
+
+        private static EventStatus parseStatus(String status) {
+            try {
+                return EventStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -22,7 +22,8 @@ public class EventMessageService {
     private static final DateTimeFormatter DATE_FORMATTER = 
         DateTimeFormatter.ofPattern("dd MMMM yyyy 'в' HH:mm", new Locale("ru"));
 
-    public void sendEventMessage(Event event, EventMessageType messageType, String participantName, String language) {
+    // status — статус ивента на момент события, а не текущий: сообщение могло ждать доставки в outbox
+    public void sendEventMessage(Event event, EventStatus status, EventMessageType messageType, String participantName, String language) {
         String message;
         switch (messageType) {
             case EVENT_CREATED -> message = String.format(
@@ -32,7 +33,7 @@ public class EventMessageService {
                 getPlaceName(event.getPlaceId())
             );
             case STATUS_CHANGED -> {
-                if (event.getStatus() == EventStatus.CONFIRMED) {
+                if (status == EventStatus.CONFIRMED) {
                     message = String.format(
                         "Статус изменен на ПОДТВЕРЖДЁН. Ивент начнется %s. " +
                         "Покинуть событие можно будет не позже чем за 2 часа до начала!",
@@ -41,7 +42,7 @@ public class EventMessageService {
                 } else {
                     message = String.format(
                         "Статус ивента изменен на %s",
-                        event.getStatus().name()
+                        status.name()
                     );
                 }
             }
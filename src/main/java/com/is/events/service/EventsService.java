@@ -1,30 +1,39 @@
 package com.is.events.service;
 
-import com.is.auth.service.EmailService;
-import com.is.auth.service.PushNotificationService;
+import com.is.events.dto.EventCardDTO;
 import com.is.events.dto.EventDTO;
-import com.is.events.dto.OrganizerDTO;
-import com.is.events.dto.ParticipantDTO;
+import com.is.events.dto.EventFields;
+import com.is.events.dto.EventSliceDTO;
 import com.is.events.exception.EventNotFoundException;
 import com.is.events.exception.EventValidationException;
 import com.is.events.model.CurrentParticipants;
 import com.is.events.model.Event;
+import com.is.events.model.EventCursor;
+import com.is.events.model.EventFilterDTO;
+import com.is.events.model.EventLifecycleEvent;
+import com.is.events.model.EventSpecification;
 import com.is.events.model.UserActivityTracking;
 import com.is.events.model.enums.EventStatus;
 import com.is.events.model.enums.EventMessageType;
+import com.is.events.repository.EventParticipationRepository;
 import com.is.events.repository.EventsRepository;
 import com.is.events.repository.UserActivityTrackingRepository;
+import com.is.events.service.outbox.EventOutboxService;
 import com.is.auth.repository.UserRepository;
 import com.is.places.model.Place;
 import com.is.places.repository.PlaceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.scheduling.annotation.Scheduled;
 
@@ -38,37 +47,40 @@ import com.is.events.dto.EventAvailabilityDTO;
 import com.is.events.dto.EventCreationAvailabilityResponse;
 import com.is.events.dto.EventStatusUpdateRequest;
 
-import com.is.events.service.EventMessageService;
 import com.is.events.dto.UserEventStatisticsDTO;
 import com.is.events.dto.EventJoinAvailabilityResponse;
-import com.is.events.model.EventParticipant;
 import com.is.events.dto.NearestEventDTO;
 import com.is.events.dto.CheckInEventDTO;
-import com.is.auth.repository.UserAdditionalInfoRepository;
-import com.is.auth.model.user.UserAdditionalInfo;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EventsService {
 
+    // Статусы, в которых ивент виден в городской ленте (к ним можно присоединиться)
+    private static final Set<EventStatus> CITY_FEED_STATUSES =
+            EnumSet.of(EventStatus.OPEN, EventStatus.PENDING_APPROVAL, EventStatus.CONFIRMED);
+
     private final EventsRepository eventsRepository;
     private final UserActivityTrackingRepository userActivityTrackingRepository;
     private final LocalizationService localizationService;
-    private final UserProfileService userProfileService;
-    private final WebSocketService webSocketService;
     private final UserRepository userRepository;
-    private final EventMessageService eventMessageService;
-    private final EmailService emailService;
     private final PlaceRepository placeRepository;
-    private final PushNotificationService pushNotificationService;
-    private final UserAdditionalInfoRepository userAdditionalInfoRepository;
+    private final EventDTOAssembler eventDTOAssembler;
+    private final EventParticipationRepository eventParticipationRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final UserEventStatsService userEventStatsService;
+    private final DailyEventLoadService dailyEventLoadService;
+    private final PlaceAvailabilityCalendar placeAvailabilityCalendar;
+    private final EventDiscoveryIndex eventDiscoveryIndex;
+    private final EventOutboxService eventOutboxService;
+    private final TransactionTemplate transactionTemplate;
 
 //    @Autowired
 //    private Logger logger;
 
-    @Cacheable(value = "events", key = "#placeId + '_' + #startDate + '_' + #endDate + '_' + #pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort")
-    public Page<EventDTO> getAllEvents(long placeId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
+    @Cacheable(value = "events", sync = true, key = "@eventCacheInvalidator.rangeKey(#placeId, #startDate, #endDate, #pageable)")
+    public Page<EventCardDTO> getAllEvents(long placeId, LocalDate startDate, LocalDate endDate, Pageable pageable) {
         log.info("Fetching events for placeId: {} with date range: {} to {}, pagination: {}", 
             placeId, startDate, endDate, pageable);
         
@@ -80,96 +92,90 @@ public class EventsService {
             endDate = startDate.plusMonths(1);
         }
         
-        return eventsRepository.findEventsByPlaceAndDateRange(placeId, startDate, endDate, pageable)
-                .map(this::convertToDTO);
+        return eventsRepository.findEventCardsByPlaceAndDateRange(
+                placeId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(), pageable);
     }
 
     // Обновляем старый метод для обратной совместимости
-    @Cacheable(value = "events", key = "#placeId + '_' + #pageable.pageNumber + '_' + #pageable.pageSize + '_' + #pageable.sort")
-    public Page<EventDTO> getAllEvents(long placeId, Pageable pageable) {
+    @Cacheable(value = "events", sync = true, key = "@eventCacheInvalidator.rangeKey(#placeId, null, null, #pageable)")
+    public Page<EventCardDTO> getAllEvents(long placeId, Pageable pageable) {
         return getAllEvents(placeId, LocalDate.now(), LocalDate.now().plusMonths(1), pageable);
     }
 
-    @Cacheable(value = "eventsByCity", key = "#placeId + '_' + #pageable.pageNumber + '_' + #pageable.pageSize")
-    public Page<EventDTO> getAllEventsByCity(long placeId, Pageable pageable) {
+    @Cacheable(value = "eventsByCity", sync = true, key = "@eventCacheInvalidator.placeKey(#placeId, #pageable)")
+    public Page<EventCardDTO> getAllEventsByCity(long placeId, Pageable pageable) {
         log.info("Fetching events by city for placeId: {} with pagination: {}", placeId, pageable);
-        return eventsRepository.findAllByPlaceId(placeId, pageable)
-                .map(this::convertToDTO);
+        return eventsRepository.findEventCardsByPlaceId(placeId, pageable);
     }
 
-    public EventDTO convertToDTO(Event event) {
-        EventDTO dto = new EventDTO();
-        dto.setEventId(event.getEventId());
-        dto.setTitle(event.getTitle());
-        dto.setDescription(event.getDescription());
-        dto.setDateTime(event.getDateTime());
-        dto.setStatus(event.getStatus().name());
-        dto.setPlaceId(event.getPlaceId());
-        dto.setAdditionalInfo(event.getAdditionalInfo());
-
-        // Проверяем, есть ли запись об активности пользователя
-        if (event.getOrganizerEvent() != null) {
-            UserActivityTracking userActivity = userActivityTrackingRepository
-                    .findByUserId(event.getOrganizerEvent().getOrganizerId())
-                    .orElse(null);
-            dto.setFirstEventCreation(userActivity != null && userActivity.isFirstEventCreation());
+    // Предстоящие ивенты города с сегодняшнего дня, по возрастанию даты
+    @Cacheable(value = "eventsByCity", sync = true, key = "@eventCacheInvalidator.cityKey(#cityId, #pageable)")
+    public Page<EventCardDTO> getCityEvents(int cityId, Pageable pageable) {
+        return eventsRepository.findEventCardsByCityId(cityId, CITY_FEED_STATUSES, LocalDate.now().atStartOfDay(), pageable);
+    }
+
+    // Keyset-страница ленты площадки (порядок date_time DESC, event_id DESC)
+    public EventSliceDTO getAllEventsSlice(long placeId, LocalDate startDate, LocalDate endDate, String cursor, int size) {
+        if (startDate == null) {
+            startDate = LocalDate.now();
+        }
+        if (endDate == null) {
+            endDate = startDate.plusMonths(1);
         }
+        EventCursor after = resolveCursor(cursor, Sort.Direction.DESC);
+        List<EventCardDTO> events = eventsRepository.findEventCardsByPlaceAndDateRangeBefore(
+                placeId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay(),
+                after.dateTime(), after.eventId(), PageRequest.of(0, size + 1));
+        return toSlice(events, size);
+    }
 
-        // Конвертация организатора
-        if (event.getOrganizerEvent() != null) {
-            OrganizerDTO organizerDTO = new OrganizerDTO();
-            organizerDTO.setOrganizerId(event.getOrganizerEvent().getOrganizerId());
-            organizerDTO.setName(event.getOrganizerEvent().getOrganizerName());
-            organizerDTO.setEmail(event.getOrganizerEvent().getEmail());
-            organizerDTO.setPhoneNumber(event.getOrganizerEvent().getPhoneNumber());
-            organizerDTO.setOrganizationType("INDIVIDUAL");
-            organizerDTO.setRating(4.8);
-
-            // Добавляем URL профильного изображения организатора
-            try {
-                String profilePictureUrl = userProfileService.getProfilePictureUrl(event.getOrganizerEvent().getOrganizerId());
-                organizerDTO.setProfilePictureUrl(profilePictureUrl);
-            } catch (Exception e) {
-                log.warn("Could not fetch profile picture for organizer {}", event.getOrganizerEvent().getOrganizerId());
-            }
+    // Keyset-страница по фильтрам /pagination; сортировка всегда (dateTime, eventId)
+    @Transactional(readOnly = true)
+    public EventSliceDTO findSlice(Specification<Event> spec, String cursor, int size, Sort.Direction direction) {
+        EventCursor after = resolveCursor(cursor, direction);
+        Sort sort = Sort.by(direction, "dateTime", "eventId");
+        List<EventCardDTO> events = eventsRepository.findCardsLimited(
+                spec.and(EventSpecification.after(after, direction)), sort, size + 1);
+        return toSlice(events, size);
+    }
 
-            dto.setOrganizer(organizerDTO);
+    private EventCursor resolveCursor(String cursor, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return direction == Sort.Direction.ASC ? EventCursor.ASC_START : EventCursor.DESC_START;
         }
-
-        // Конвертация участников
-        if (event.getCurrentParticipants() != null && event.getCurrentParticipants().getParticipants() != null && !event.getCurrentParticipants().getParticipants().isEmpty()) {
-            List<ParticipantDTO> participantDTOs = event.getCurrentParticipants().getParticipants().stream()
-                    .map(participant -> {
-                        String profilePictureUrl = null;
-                        try {
-                            profilePictureUrl = userProfileService.getProfilePictureUrl(participant.getParticipantId());
-                        } catch (Exception e) {
-                            log.warn("Could not fetch profile picture for participant {}", participant.getParticipantId());
-                        }
-                        return new ParticipantDTO(
-                                participant.getParticipantId(),
-                                participant.getParticipantName(),
-                                participant.getJoinedAt(),
-                                profilePictureUrl,
-                                participant.getStatus()
-                        );
-                    })
-                    .toList();
-            dto.setParticipants(participantDTOs);
-            dto.setParticipantsCount(event.getCurrentParticipants().getSize());
-        } else {
-            dto.setParticipants(new ArrayList<>());
-            dto.setParticipantsCount(0);
+        EventCursor decoded = EventCursor.decode(cursor);
+        if (decoded == null) {
+            throw new EventValidationException("invalid_cursor", returnTextToUserByLang("en", "invalid_cursor"));
         }
+        return decoded;
+    }
 
-        // Установка дополнительных полей
-        dto.setJoinable(event.getStatus() == EventStatus.OPEN || event.getStatus() == EventStatus.PENDING_APPROVAL || event.getStatus() == EventStatus.CONFIRMED);
-        dto.setMaxParticipants(event.getSportEvent().getMaxParticipants());
-        dto.setEventType(event.getSportEvent().getSportType());
-        dto.setLocation(event.getSportEvent().getLocation());
-        dto.setPrice(event.getSportEvent().getPrice());
+    // Запрашиваем size + 1 строку: лишняя означает, что есть следующая страница
+    private EventSliceDTO toSlice(List<EventCardDTO> events, int size) {
+        boolean hasNext = events.size() > size;
+        List<EventCardDTO> content = hasNext ? events.subList(0, size) : events;
+        return EventSliceDTO.builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? EventCursor.of(content.get(content.size() - 1)).encode() : null)
+                .build();
+    }
 
-        return dto;
+    public EventDTO convertToDTO(Event event) {
+        return eventDTOAssembler.toDTO(event);
+    }
+
+    public Page<EventDTO> convertToDTOs(Page<Event> events) {
+        return eventDTOAssembler.toDTOPage(events);
+    }
+
+    public List<EventDTO> convertToDTOs(List<Event> events) {
+        return eventDTOAssembler.toDTOs(events);
+    }
+
+    public List<EventDTO> convertToDTOs(List<Event> events, EventFields fields) {
+        return eventDTOAssembler.toDTOs(events, fields);
     }
 
     @Transactional(readOnly = true)
@@ -177,6 +183,22 @@ public class EventsService {
         return eventsRepository.findAll(spec, pageable);
     }
 
+    // Лента /pagination: только колонки карточки, без jsonb и ростера
+    @Transactional(readOnly = true)
+    public Page<EventCardDTO> findCards(Specification<Event> spec, Pageable pageable) {
+        return eventsRepository.findCards(spec, pageable);
+    }
+
+    // Лента поиска предстоящих OPEN / CONFIRMED ивентов из индекса в памяти; пока индекс не собран — из БД
+    public Page<EventCardDTO> discoverEvents(EventFilterDTO filter, Pageable pageable) {
+        if (eventDiscoveryIndex.isReady()) {
+            return eventDiscoveryIndex.find(filter, pageable);
+        }
+        Specification<Event> spec = EventSpecification.withFilters(filter)
+                .and(EventSpecification.upcoming(EventDiscoveryIndex.INDEXED_STATUSES));
+        return eventsRepository.findCards(spec, pageable);
+    }
+
     @Transactional
     public EventDTO addEvent(Event event, String lang) {
         validateEventDate(event.getDateTime(), lang);
@@ -198,6 +220,11 @@ public class EventsService {
                     returnTextToUserByLang(lang, "user_not_found"));
         }
 
+        if (!dailyEventLoadService.tryAddOrganizedEvent(organizerId, event.getDateTime().toLocalDate())) {
+            throw new EventValidationException("too_many_events_per_day",
+                    returnTextToUserByLang(lang, "too_many_events_per_day"));
+        }
+
         boolean isFirstEventCreation = !userActivityTrackingRepository.existsByUserId(organizerId);
 
         if (isFirstEventCreation) {
@@ -210,22 +237,22 @@ public class EventsService {
             log.info("Created first event tracking for user {}", organizerId);
         }
 
+        Place getPlace = placeRepository.findPlaceByPlaceId(event.getPlaceId());
+        if (getPlace != null) {
+            event.setCityId(getPlace.getCurrentLocationCityId());
+        }
+
         event.setFirstTimeEventCreation(isFirstEventCreation);
         event.setStatus(EventStatus.OPEN);
         Event savedEvent = eventsRepository.save(event);
+        if (savedEvent.getCurrentParticipants() != null && savedEvent.getCurrentParticipants().getParticipants() != null) {
+            savedEvent.getCurrentParticipants().getParticipants()
+                    .forEach(participant -> saveParticipation(savedEvent.getEventId(), participant));
+        }
+        applicationEventPublisher.publishEvent(EventLifecycleEvent.created(savedEvent));
 
-        // Отправляем системное сообщение о создании ивента
-        eventMessageService.sendEventMessage(savedEvent, EventMessageType.EVENT_CREATED, null,lang);
-
-        // Отправляем уведомление через WebSocket
-        webSocketService.notifyEventUpdate(event.getPlaceId());
-        webSocketService.sendEventUpdate(convertToDTO(savedEvent));
-        Place getPlace = placeRepository.findPlaceByPlaceId(event.getPlaceId());
-
-        emailService.sendEventCreated(event,lang,getPlace.getAddress(),getPlace.getName());
-
-        // Отправляем уведомления пользователям, у которых этот вид спорта в избранном
-        pushNotificationService.sendNewEventNotification(savedEvent);
+        // Сообщение в чат, WebSocket, email и push доставит EventOutboxRelay
+        eventOutboxService.enqueue(savedEvent, EventMessageType.EVENT_CREATED, lang);
 
         EventDTO resultDto = convertToDTO(savedEvent);
         resultDto.setFirstEventCreation(isFirstEventCreation);
@@ -237,6 +264,13 @@ public class EventsService {
         Event event = findAndValidateEvent(eventId, lang);
         validateEventJoinability(event, userId, lang);
 
+        boolean isOrganizer = event.getOrganizerEvent() != null && userId.equals(event.getOrganizerEvent().getOrganizerId());
+        if (DailyEventLoadService.isActive(event.getStatus())
+                && !dailyEventLoadService.tryAddParticipation(userId, event.getDateTime().toLocalDate(), isOrganizer)) {
+            throw new EventValidationException("too_many_events_per_day_for_joining",
+                    returnTextToUserByLang(lang, "too_many_events_per_day_for_joining"));
+        }
+
         try {
             log.info("Adding participant userId: {}, userName: {} to event: {}", userId, userName, eventId);
 
@@ -244,25 +278,20 @@ public class EventsService {
                 event.setCurrentParticipants(new CurrentParticipants());
             }
 
-            event.getCurrentParticipants().addParticipant(userId, userName);
+            CurrentParticipants.Participant joined = event.getCurrentParticipants().addParticipant(userId, userName);
             event.getCurrentParticipants().setSize(event.getCurrentParticipants().getParticipants().size());
 
             log.info("Current participants state: {}", event.getCurrentParticipants());
             Event updatedEvent = eventsRepository.save(event);
+            saveParticipation(updatedEvent.getEventId(), joined);
+            applicationEventPublisher.publishEvent(EventLifecycleEvent.participantJoined(updatedEvent, userId));
 
-            // Отправляем системное сообщение о присоединении участника
-            eventMessageService.sendEventMessage(updatedEvent, EventMessageType.PARTICIPANT_JOINED, userName, lang);
-
-            // Отправляем push-уведомление организатору
-            EventParticipant participant = new EventParticipant(updatedEvent, userRepository.getById(userId));
-            pushNotificationService.sendParticipantJoinedNotification(updatedEvent, participant);
-
-            // Отправляем уведомление через WebSocket
-            webSocketService.notifyEventUpdate(event.getPlaceId());
-            webSocketService.sendEventUpdate(convertToDTO(updatedEvent));
+            // Сообщение в чат, push организатору и WebSocket — через outbox
+            eventOutboxService.enqueue(updatedEvent, EventMessageType.PARTICIPANT_JOINED, userId, userName, lang);
+            EventDTO eventDTO = convertToDTO(updatedEvent);
 
             log.info("Successfully added participant to event: {}", eventId);
-            return convertToDTO(updatedEvent);
+            return eventDTO;
 
         } catch (Exception e) {
             log.error("Error while adding participant to event: {}", eventId, e);
@@ -271,9 +300,9 @@ public class EventsService {
         }
     }
 
-    public EventDTO getEventById(long eventId, String lang) {
+    public EventDTO getEventById(long eventId, String lang, EventFields fields) {
         Event event = findAndValidateEvent(eventId, lang);
-        return convertToDTO(event);
+        return eventDTOAssembler.toDTO(event, fields);
     }
 
     @Transactional
@@ -310,23 +339,13 @@ public class EventsService {
         event.setStatus(newStatus);
         log.info("Event {} status changed to {} by organizer {}", eventId, newStatus, userId);
         Event savedEvent = eventsRepository.save(event);
+        applicationEventPublisher.publishEvent(EventLifecycleEvent.statusChanged(savedEvent, currentStatus));
 
-        // Отправляем системное сообщение о смене статуса
-        if (newStatus == EventStatus.IN_PROGRESS) {
-            eventMessageService.sendEventMessage(savedEvent, EventMessageType.EVENT_STARTED, null,lang);
-        } else {
-            eventMessageService.sendEventMessage(savedEvent, EventMessageType.STATUS_CHANGED, null,lang);
-        }
-
-        // Отправляем push-уведомление организатору
-        pushNotificationService.sendEventStatusChangeNotification(savedEvent, newStatus);
-
-        // Отправляем уведомление через WebSocket
-        webSocketService.notifyEventUpdate(event.getPlaceId());
-        webSocketService.sendEventUpdate(convertToDTO(savedEvent));
-        Place getPlace = placeRepository.findPlaceByPlaceId(event.getPlaceId());
-
-        emailService.sendEventStatusChangeNotification(event,lang,getPlace.getName(),getPlace.getPhone());
+        // Сообщение в чат, push, WebSocket и email — через outbox
+        EventMessageType messageType = newStatus == EventStatus.IN_PROGRESS
+                ? EventMessageType.EVENT_STARTED
+                : EventMessageType.STATUS_CHANGED;
+        eventOutboxService.enqueueStatusChange(savedEvent, currentStatus, messageType, lang);
         return savedEvent;
     }
 
@@ -343,8 +362,10 @@ public class EventsService {
                         try {
                             log.info("Marking event {} as EXPIRED because its datetime {} is before now {}",
                                     event.getEventId(), event.getDateTime(), now);
+                            EventStatus previousStatus = event.getStatus();
                             event.setStatus(EventStatus.EXPIRED);
-                            eventsRepository.save(event);
+                            applicationEventPublisher.publishEvent(
+                                    EventLifecycleEvent.statusChanged(eventsRepository.save(event), previousStatus));
                         } catch (Exception e) {
                             log.error("Error updating event {} status to EXPIRED", event.getEventId(), e);
                         }
@@ -376,20 +397,15 @@ public class EventsService {
             event.getCurrentParticipants().removeParticipant(participantId);
 
             Event updatedEvent = eventsRepository.save(event);
+            eventParticipationRepository.deleteByEventIdAndUserId(eventId, participantId);
+            applicationEventPublisher.publishEvent(EventLifecycleEvent.participantLeft(updatedEvent, participantId));
 
-            // Отправляем системное сообщение о выходе участника
-            eventMessageService.sendEventMessage(updatedEvent, EventMessageType.PARTICIPANT_LEFT, participantName, lang);
-
-            // Отправляем push-уведомление организатору
-            EventParticipant participant = new EventParticipant(updatedEvent, userRepository.getById(participantId));
-            pushNotificationService.sendParticipantLeftNotification(updatedEvent, participant);
-
-            // Отправляем уведомление через WebSocket
-            webSocketService.notifyEventUpdate(event.getPlaceId());
-            webSocketService.sendEventUpdate(convertToDTO(updatedEvent));
+            // Сообщение в чат, push организатору и WebSocket — через outbox
+            eventOutboxService.enqueue(updatedEvent, EventMessageType.PARTICIPANT_LEFT, participantId, participantName, lang);
+            EventDTO eventDTO = convertToDTO(updatedEvent);
 
             log.info("Successfully removed participant from event: {}", eventId);
-            return convertToDTO(updatedEvent);
+            return eventDTO;
         } catch (EventValidationException e) {
             throw e;
         } catch (Exception e) {
@@ -399,6 +415,20 @@ public class EventsService {
         }
     }
 
+    // Дублируем изменение участника из jsonb в events.event_participants
+    private void saveParticipation(Long eventId, CurrentParticipants.Participant participant) {
+        if (participant == null) {
+            return;
+        }
+        eventParticipationRepository.upsert(
+                eventId,
+                participant.getParticipantId(),
+                participant.getStatus(),
+                participant.getJoinedAt(),
+                participant.getCheckedInAt()
+        );
+    }
+
     private Event findAndValidateEvent(Long eventId, String lang) {
         Event event = eventsRepository.findEventByEventId(eventId);
         if (event == null) {
@@ -617,69 +647,43 @@ public class EventsService {
             case "uz_status_transition_error" -> "Statusni %s dan %s ga o'zgartirib bo'lmaydi";
             case "en_status_transition_error" -> "Cannot transition from %s to %s";
 
+            case "ru_invalid_cursor" -> "Некорректный курсор пагинации, начните список заново.";
+            case "uz_invalid_cursor" -> "Sahifalash kursori noto'g'ri, ro'yxatni qaytadan boshlang.";
+            case "en_invalid_cursor" -> "Invalid pagination cursor, please start the list again.";
+
             default -> throw new IllegalArgumentException("Unsupported language/action: " + lang + "_" + action);
         };
     }
 
-    public List<EventDTO> getLastCompletedEventsForUser(Long userId) {
+    public List<EventDTO> getLastCompletedEventsForUser(Long userId, EventFields fields) {
         log.info("Getting last completed events for user {}", userId);
 
         List<Event> events = eventsRepository.findLastThreeCompletedEventsByUser(userId);
 
-        return events.stream()
-                .map(this::convertToDTO)
-                .toList();
+        return eventDTOAssembler.toDTOs(events, fields);
     }
-    public List<EventDTO> getUserActivityEvents(Long userId) {
+    public List<EventDTO> getUserActivityEvents(Long userId, EventFields fields) {
         log.info("Getting all user's activity events {}", userId);
 
         List<Event> events = eventsRepository.findAllActivityByUser(userId);
 
-        return events.stream()
-                .map(this::convertToDTO)
-                .toList();
+        return eventDTOAssembler.toDTOs(events, fields);
     }
 
     public List<EventAvailabilityDTO> getEventAvailability(Long placeId, LocalDate startDate) {
-        LocalDateTime startDateTime = startDate.atStartOfDay();
-        LocalDateTime endDateTime = startDate.plusDays(30).atTime(23, 59, 59);
-
-        List<Event> events = eventsRepository.findAll(
-                (root, query, cb) -> cb.and(
-                        cb.equal(root.get("placeId"), placeId),
-                        cb.or(
-                                cb.equal(root.get("status"), EventStatus.PENDING_APPROVAL),
-                                cb.equal(root.get("status"), EventStatus.OPEN)
-                        ),
-                        cb.greaterThanOrEqualTo(root.get("dateTime"), startDateTime),
-                        cb.lessThanOrEqualTo(root.get("dateTime"), endDateTime)
-                )
-        );
-
-        Map<LocalDate, Long> eventCountByDate = events.stream()
-            .map(event -> event.getDateTime().toLocalDate())
-            .collect(Collectors.groupingBy(
-                date -> date,
-                Collectors.counting()
-            ));
-
-        return startDate.datesUntil(startDate.plusDays(30))
-            .map(date -> EventAvailabilityDTO.builder()
-                .date(date)
-                .eventCount(eventCountByDate.getOrDefault(date, 0L).intValue())
-                .build())
-            .collect(Collectors.toList());
+        return placeAvailabilityCalendar.getAvailability(placeId, startDate, 30);
     }
 
     public EventCreationAvailabilityResponse checkEventCreationAvailability(Long organizerId, LocalDate date, String lang) {
         // Получаем количество событий по ролям
-        int eventsAsOrganizer = eventsRepository.countUserEventsAsOrganizerForDate(organizerId, date);
-        int eventsAsParticipant = eventsRepository.countUserEventsAsParticipantForDate(organizerId, date);
-        int uniqueEvents = eventsRepository.countUserEventsAsBothRolesForDate(organizerId, date);
+        DailyEventLoadService.DailyLoad load = dailyEventLoadService.getLoad(organizerId, date);
+        int eventsAsOrganizer = load.asOrganizer();
+        int eventsAsParticipant = load.asParticipant();
+        int uniqueEvents = load.asBoth();
         
         // Вычисляем общее количество уникальных событий
         // Формула: organizer + participant - unique (чтобы не считать дважды события, где пользователь и организатор, и участник)
-        int totalEvents = eventsAsOrganizer + eventsAsParticipant - uniqueEvents;
+        int totalEvents = load.total();
         
         // Проверяем общее количество уникальных событий
         if (totalEvents >= 3) {
@@ -717,12 +721,13 @@ public class EventsService {
 
     public EventCreationAvailabilityResponse checkEventTimeAvailability(Long organizerId, LocalDate date, LocalDateTime proposedTime, String lang) {
         // Получаем количество событий по ролям
-        int eventsAsOrganizer = eventsRepository.countUserEventsAsOrganizerForDate(organizerId, date);
-        int eventsAsParticipant = eventsRepository.countUserEventsAsParticipantForDate(organizerId, date);
-        int uniqueEvents = eventsRepository.countUserEventsAsBothRolesForDate(organizerId, date);
+        DailyEventLoadService.DailyLoad load = dailyEventLoadService.getLoad(organizerId, date);
+        int eventsAsOrganizer = load.asOrganizer();
+        int eventsAsParticipant = load.asParticipant();
+        int uniqueEvents = load.asBoth();
         
         // Вычисляем общее количество уникальных событий
-        int totalEvents = eventsAsOrganizer + eventsAsParticipant - uniqueEvents;
+        int totalEvents = load.total();
 
         // Проверяем общее количество уникальных событий
         if (totalEvents >= 3) {
@@ -774,6 +779,7 @@ public class EventsService {
                 .build();
     }
 
+    @Transactional
     public Event confirmEvent(Long eventId, Long organizationId) {
         Event event = findEventById(eventId);
         validateOrganizationAccess(event, organizationId);
@@ -783,10 +789,12 @@ public class EventsService {
             throw new IllegalStateException("Event can only be confirmed when in PENDING_APPROVAL or CHANGES_REQUESTED status");
         }
         
+        EventStatus previousStatus = event.getStatus();
         event.confirm();
-        return eventsRepository.save(event);
+        return saveStatusChange(event, previousStatus);
     }
 
+    @Transactional
     public Event rejectEvent(Long eventId, Long organizationId, EventStatusUpdateRequest request) {
         Event event = findEventById(eventId);
         validateOrganizationAccess(event, organizationId);
@@ -796,10 +804,12 @@ public class EventsService {
             throw new IllegalStateException("Event can only be rejected when in PENDING_APPROVAL or CHANGES_REQUESTED status");
         }
         
+        EventStatus previousStatus = event.getStatus();
         event.reject(request.getReason(), organizationId);
-        return eventsRepository.save(event);
+        return saveStatusChange(event, previousStatus);
     }
 
+    @Transactional
     public Event requestEventChanges(Long eventId, Long organizationId, EventStatusUpdateRequest request) {
         Event event = findEventById(eventId);
         validateOrganizationAccess(event, organizationId);
@@ -808,78 +818,47 @@ public class EventsService {
             throw new IllegalStateException("Changes can only be requested for events in PENDING_APPROVAL status");
         }
         
+        EventStatus previousStatus = event.getStatus();
         event.requestChanges(request.getRequestedChanges(), organizationId);
-        return eventsRepository.save(event);
+        return saveStatusChange(event, previousStatus);
     }
 
+    @Transactional
     public Event startEvent(Long eventId) {
         Event event = findEventById(eventId);
+        EventStatus previousStatus = event.getStatus();
         event.startEvent();
-        return eventsRepository.save(event);
+        return saveStatusChange(event, previousStatus);
     }
 
+    @Transactional
     public Event completeEvent(Long eventId) {
         Event event = findEventById(eventId);
+        EventStatus previousStatus = event.getStatus();
         event.complete();
-        Event savedEvent = eventsRepository.save(event);
+        Event savedEvent = saveStatusChange(event, previousStatus);
 
-        // Мультиязычные тексты уведомлений
-        Map<String, String> participantTexts = Map.of(
-            "ru", "🏁 Всё! Игра сделана!\nВы крутые – сегодня был настоящий движ! 💥\nНе забудьте отблагодарить организатора – он всё устроил 💼→⚽️\nОценка — это ваш лайк в реальной жизни 🌟",
-            "uz", "🏁 Tamom! O‘yin tugadi!\nBugun haqiqiy o‘yin / jang / harakat bo‘ldi – sizlar zo‘rsiz! 💥\nHammasini uyushtirgan tashkilotchiga rahmat aytishni unutmang 💼→⚽️\nBaholash – bu haqiqiy hayotdagi “like” 🌟",
-            "en", "🏁 That’s a wrap! Game over!\nYou rocked it — what a match / clash / epic vibe today! 💥\nDon’t forget to thank the organizer — they made it all happen 💼→⚽️\nA rating is your real-life like 🌟"
-        );
-        Map<String, String> organizerTexts = Map.of(
-            "ru", "🎉 Миссия выполнена! Ивент на ура!\nКоманда собралась, эмоции зарядили — время выдохнуть 😮‍💨\nТеперь оцените своих игроков — кто был душой компании, а кто «тихо, но метко» 🎯\nВаш отзыв — как медаль на память 🏅",
-            "uz", "🎉 Vazifa bajarildi! Tadbir zo‘r o‘tdi!\nJamoa yig‘ildi, hissiyotlar chaqnadi — endi chuqur nafas oling 😮‍💨\nEndi ishtirokchilaringizni baholang — kim kompaniyaning yuragi bo‘ldi, kim esa «jim-jit, lekin aniq» 🎯\nSizning fikringiz – bu esdalik medali 🏅",
-            "en", "🎉 Mission accomplished! The event was a blast!\nThe team showed up, the energy was high — now take a deep breath 😮‍💨\nTime to rate your players — who brought the fire, and who played it cool but sharp 🎯\nYour feedback is a medal of honor 🏅"
-        );
-
-        // Отправка push-уведомлений участникам
-        if (event.getCurrentParticipants() != null && event.getCurrentParticipants().getParticipants() != null) {
-            event.getCurrentParticipants().getParticipants().forEach(participant -> {
-                if (!participant.getParticipantId().equals(event.getOrganizerEvent().getOrganizerId())) {
-                    String lang = "ru";
-                    try {
-                        UserAdditionalInfo info = userAdditionalInfoRepository.findById(participant.getParticipantId()).orElse(null);
-                        if (info != null && info.getLanguage() != null) {
-                            lang = info.getLanguage();
-                        }
-                    } catch (Exception ignored) {}
-                    String text = participantTexts.getOrDefault(lang, participantTexts.get("ru"));
-                    pushNotificationService.sendSimpleNotification(
-                        participant.getParticipantId(),
-                        "Ивент завершился!",
-                        text,
-                        "EVENT_COMPLETED"
-                    );
-                }
-            });
-        }
-        // Отправка push-уведомления организатору
-        String orgLang = "ru";
-        try {
-            UserAdditionalInfo orgInfo = userAdditionalInfoRepository.findById(event.getOrganizerEvent().getOrganizerId()).orElse(null);
-            if (orgInfo != null && orgInfo.getLanguage() != null) {
-                orgLang = orgInfo.getLanguage();
-            }
-        } catch (Exception ignored) {}
-        String orgText = organizerTexts.getOrDefault(orgLang, organizerTexts.get("ru"));
-        pushNotificationService.sendSimpleNotification(
-            event.getOrganizerEvent().getOrganizerId(),
-            "Ивент завершился!",
-            orgText,
-            "EVENT_COMPLETED_ORG"
-        );
+        // Push участникам и организатору — через outbox после коммита
+        eventOutboxService.enqueueStatusChange(savedEvent, previousStatus, EventMessageType.EVENT_COMPLETED, "ru");
 
         return savedEvent;
     }
 
+    @Transactional
     public Event cancelEvent(Long eventId, Long organizationId) {
         Event event = findEventById(eventId);
         validateOrganizationAccess(event, organizationId);
+        EventStatus previousStatus = event.getStatus();
         event.cancel();
-        return eventsRepository.save(event);
+        return saveStatusChange(event, previousStatus);
+    }
+
+    // Вызывается в транзакции смены статуса: синхронные слушатели EventLifecycleEvent и запись в outbox
+    // коммитятся вместе с ивентом
+    private Event saveStatusChange(Event event, EventStatus previousStatus) {
+        Event savedEvent = eventsRepository.save(event);
+        applicationEventPublisher.publishEvent(EventLifecycleEvent.statusChanged(savedEvent, previousStatus));
+        return savedEvent;
     }
 
     private void validateOrganizationAccess(Event event, Long organizationId) {
@@ -904,12 +883,13 @@ public class EventsService {
             try {
                 // Дополнительная проверка времени для большей точности
                 if (event.getDateTime().isAfter(now)) {
-                    event.startEvent();
-                    eventsRepository.save(event);
-                    Place getPlace = placeRepository.findPlaceByPlaceId(event.getPlaceId());
-
-
-                    emailService.sendEventStatusChangeNotification(event,"ru",getPlace.getName(),getPlace.getPhone());
+                    // Своя транзакция на ивент: смена статуса и outbox атомарны, сбой одного не откатывает остальные
+                    transactionTemplate.executeWithoutResult(status -> {
+                        EventStatus previousStatus = event.getStatus();
+                        event.startEvent();
+                        saveStatusChange(event, previousStatus);
+                        eventOutboxService.enqueueStatusChange(event, previousStatus, EventMessageType.EVENT_STARTED, "ru");
+                    });
                     log.info("Event {} automatically started at {}. Event time was: {}", 
                         event.getEventId(), now, event.getDateTime());
                 }
@@ -920,30 +900,25 @@ public class EventsService {
     }
 
     public UserEventStatisticsDTO getUserEventStatistics(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EventValidationException("user_not_found",
-                    returnTextToUserByLang("en", "user_not_found"));
-        }
-
-        int eventsAsParticipant = eventsRepository.countEventsWhereUserIsParticipant(userId);
-        int eventsAsOrganizer = eventsRepository.countEventsWhereUserIsOrganizer(userId);
-        int totalEvents = eventsRepository.countAllUserEvents(userId);
-
-        return UserEventStatisticsDTO.builder()
-                .totalEvents(totalEvents)
-                .eventsAsOrganizer(eventsAsOrganizer)
-                .eventsAsParticipant(eventsAsParticipant)
-                .build();
+        // Строка счётчиков есть у всех, кто хоть раз создавал ивент или участвовал в нём
+        return userEventStatsService.findStatistics(userId).orElseGet(() -> {
+            if (!userRepository.existsById(userId)) {
+                throw new EventValidationException("user_not_found",
+                        returnTextToUserByLang("en", "user_not_found"));
+            }
+            return UserEventStatisticsDTO.builder().build();
+        });
     }
 
     public EventJoinAvailabilityResponse checkEventJoinAvailability(Long userId, LocalDate date, String lang) {
         // Получаем количество событий по ролям
-        int eventsAsOrganizer = eventsRepository.countUserEventsAsOrganizerForDate(userId, date);
-        int eventsAsParticipant = eventsRepository.countUserEventsAsParticipantForDate(userId, date);
-        int uniqueEvents = eventsRepository.countUserEventsAsBothRolesForDate(userId, date);
+        DailyEventLoadService.DailyLoad load = dailyEventLoadService.getLoad(userId, date);
+        int eventsAsOrganizer = load.asOrganizer();
+        int eventsAsParticipant = load.asParticipant();
+        int uniqueEvents = load.asBoth();
         
         // Вычисляем общее количество уникальных событий
-        int totalEvents = eventsAsOrganizer + eventsAsParticipant - uniqueEvents;
+        int totalEvents = load.total();
         
         if (totalEvents >= 3) {
             return EventJoinAvailabilityResponse.builder()
@@ -966,7 +941,8 @@ public class EventsService {
                 .build();
     }
 
-    public Page<EventDTO> getOrganizationEvents(
+    @Cacheable(value = "organizationEvents", sync = true, key = "@eventCacheInvalidator.placeKey(#placeId, #statuses, #pageable)")
+    public Page<EventCardDTO> getOrganizationEvents(
             Long placeId,
             List<EventStatus> statuses,
             Pageable pageable) {
@@ -974,15 +950,9 @@ public class EventsService {
         log.info("Fetching organization events for placeId: {} with statuses: {}, pagination: {}", 
             placeId, statuses, pageable);
 
-        // Преобразуем список статусов в массив строк
-        String[] statusArray = statuses != null && !statuses.isEmpty() 
-            ? statuses.stream()
-                .map(EventStatus::name)
-                .toArray(String[]::new)
-            : null;
-
-        return eventsRepository.findOrganizationEventsByStatus(placeId, statusArray, pageable)
-                .map(this::convertToDTO);
+        return statuses != null && !statuses.isEmpty()
+                ? eventsRepository.findEventCardsByPlaceIdAndStatusIn(placeId, statuses, pageable)
+                : eventsRepository.findEventCardsByPlaceId(placeId, pageable);
     }
 
     private boolean isValidOrganizationEventStatus(EventStatus status) {
@@ -1003,7 +973,7 @@ public class EventsService {
         }
         
         event.setStatus(EventStatus.PENDING_APPROVAL);
-        return convertToDTO(eventsRepository.save(event));
+        return convertToDTO(saveStatusChange(event, EventStatus.OPEN));
     }
 
     public NearestEventDTO getNearestEventForUser(Long userId) {
@@ -1025,7 +995,7 @@ public class EventsService {
         }
     }
 
-    public EventDTO getCurrentInProgressEventForUser(Long userId) {
+    public EventDTO getCurrentInProgressEventForUser(Long userId, EventFields fields) {
         log.info("Getting current IN_PROGRESS event for user {}", userId);
         
         try {
@@ -1036,14 +1006,14 @@ public class EventsService {
                 return null;
             }
             
-            return convertToDTO(currentEvent);
+            return eventDTOAssembler.toDTO(currentEvent, fields);
         } catch (Exception e) {
             log.error("Error getting current IN_PROGRESS event for user {}: {}", userId, e.getMessage());
             throw new RuntimeException("Error getting current IN_PROGRESS event", e);
         }
     }
 
-    public List<EventDTO> getEventsForToday(Long userId) {
+    public List<EventDTO> getEventsForToday(Long userId, EventFields fields) {
         log.info("Getting events for today for user {}", userId);
         
         try {
@@ -1052,9 +1022,7 @@ public class EventsService {
             
             log.info("Found {} events for today for user {}", todayEvents.size(), userId);
             
-            return todayEvents.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+            return eventDTOAssembler.toDTOs(todayEvents, fields);
         } catch (Exception e) {
             log.error("Error getting events for today for user {}: {}", userId, e.getMessage());
             throw new RuntimeException("Error getting events for today", e);
@@ -1125,14 +1093,14 @@ public class EventsService {
         LocalDate today = LocalDate.now();
         LocalDateTime nowPlus30 = LocalDateTime.now().plusMinutes(30);
         List<Event> events = eventsRepository.findEventsForCheckInTodaySimple(placeId, today, nowPlus30);
-        return events.stream()
+        List<Event> userEvents = events.stream()
             .filter(event -> {
                 boolean isOrganizer = event.getOrganizerEvent() != null && event.getOrganizerEvent().getOrganizerId().equals(userId);
                 boolean isParticipant = event.getCurrentParticipants() != null && event.getCurrentParticipants().hasParticipant(userId);
                 return isOrganizer || isParticipant;
             })
-            .map(event -> convertToCheckInDTO(event, userId))
             .toList();
+        return eventDTOAssembler.toCheckInDTOs(userEvents, userId);
     }
 
     @Transactional
@@ -1170,6 +1138,7 @@ public class EventsService {
                     returnTextToUserByLang(lang, "not_participant"));
         }
 
+        CurrentParticipants.Participant checkedIn = null;
         // Если пользователь уже участник — проверяем статус
         if (isParticipant) {
             String currentStatus = event.getCurrentParticipants().getParticipants().stream()
@@ -1182,7 +1151,7 @@ public class EventsService {
                         returnTextToUserByLang(lang, "already_checked_in"));
             }
             // Отмечаем присутствие
-            event.getCurrentParticipants().checkInParticipant(userId);
+            checkedIn = event.getCurrentParticipants().checkInParticipant(userId);
         } else if (isOrganizer) {
             // Если организатор не в списке участников — добавляем его как PRESENT
             String organizerName = event.getOrganizerEvent().getOrganizerName();
@@ -1191,96 +1160,18 @@ public class EventsService {
             );
             event.getCurrentParticipants().getParticipants().add(organizerParticipant);
             event.getCurrentParticipants().setSize(event.getCurrentParticipants().getParticipants().size());
+            dailyEventLoadService.tryAddParticipation(userId, event.getDateTime().toLocalDate(), true);
+            checkedIn = organizerParticipant;
         }
 
         eventsRepository.save(event);
+        saveParticipation(eventId, checkedIn);
+        applicationEventPublisher.publishEvent(EventLifecycleEvent.checkedIn(event, userId));
 
-        // Отправляем сообщение в чат
+        // Сообщение в чат — через outbox
         String userName = isParticipant ? event.getCurrentParticipants().getParticipantName(userId) : event.getOrganizerEvent().getOrganizerName();
-        eventMessageService.sendEventMessage(event, EventMessageType.PARTICIPANT_CHECKED_IN, userName, lang);
+        eventOutboxService.enqueue(event, EventMessageType.PARTICIPANT_CHECKED_IN, userId, userName, lang);
 
         log.info("Participant {} successfully checked in for event {}", userId, eventId);
     }
-
-    private CheckInEventDTO convertToCheckInDTO(Event event, Long userId) {
-        // Определяем роль пользователя
-        boolean isOrganizer = event.getOrganizerEvent() != null && 
-                             event.getOrganizerEvent().getOrganizerId().equals(userId);
-        
-        String userRole = isOrganizer ? "ORGANIZER" : "PARTICIPANT";
-        
-        // Определяем статус пользователя в ивенте
-        String userStatus = "ACTIVE";
-        if (event.getCurrentParticipants() != null) {
-            userStatus = event.getCurrentParticipants().getParticipants().stream()
-                    .filter(p -> p.getParticipantId().equals(userId))
-                    .map(CurrentParticipants.Participant::getStatus)
-                    .findFirst()
-                    .orElse(isOrganizer ? "ORGANIZER" : "ACTIVE");
-        }
-        
-        // Определяем возможности пользователя
-        boolean canStart = isOrganizer && event.getStatus() == EventStatus.CONFIRMED
-            && !event.getDateTime().minusMinutes(30).isAfter(LocalDateTime.now());
-        boolean canCheckIn = "ACTIVE".equals(userStatus);
-        
-        // Конвертируем участников
-        List<ParticipantDTO> participants = new ArrayList<>();
-        if (event.getCurrentParticipants() != null) {
-            participants = event.getCurrentParticipants().getParticipants().stream()
-                    .map(participant -> {
-                        String profilePictureUrl = null;
-                        try {
-                            profilePictureUrl = userProfileService.getProfilePictureUrl(participant.getParticipantId());
-                        } catch (Exception e) {
-                            log.warn("Could not fetch profile picture for participant {}", participant.getParticipantId());
-                        }
-                        return new ParticipantDTO(
-                                participant.getParticipantId(),
-                                participant.getParticipantName(),
-                                participant.getJoinedAt(),
-                                profilePictureUrl,
-                                participant.getStatus()
-                        );
-                    })
-                    .toList();
-        }
-        
-        // Конвертируем организатора
-        OrganizerDTO organizer = null;
-        if (event.getOrganizerEvent() != null) {
-            organizer = OrganizerDTO.builder()
-                    .organizerId(event.getOrganizerEvent().getOrganizerId())
-                    .name(event.getOrganizerEvent().getOrganizerName())
-                    .email(event.getOrganizerEvent().getEmail())
-                    .phoneNumber(event.getOrganizerEvent().getPhoneNumber())
-                    .organizationType("INDIVIDUAL")
-                    .rating(4.8)
-                    .build();
-            
-            try {
-                String profilePictureUrl = userProfileService.getProfilePictureUrl(event.getOrganizerEvent().getOrganizerId());
-                organizer.setProfilePictureUrl(profilePictureUrl);
-            } catch (Exception e) {
-                log.warn("Could not fetch profile picture for organizer {}", event.getOrganizerEvent().getOrganizerId());
-            }
-        }
-        
-        return CheckInEventDTO.builder()
-                .eventId(event.getEventId())
-                .title(event.getTitle())
-                .description(event.getDescription())
-                .dateTime(event.getDateTime())
-                .status(event.getStatus().name())
-                .userRole(userRole)
-                .canStart(canStart)
-                .canCheckIn(canCheckIn)
-                .userStatus(userStatus)
-                .participants(participants)
-                .organizer(organizer)
-                .location(event.getSportEvent().getLocation())
-                .price(event.getSportEvent().getPrice())
-                .additionalInfo(event.getAdditionalInfo())
-                .build();
-    }
 }
\ No newline at end of file
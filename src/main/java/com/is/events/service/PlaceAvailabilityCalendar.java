@@ -0,0 +1,114 @@
+package com.is.events.service;
+
+import com.is.events.dto.EventAvailabilityDTO;
+import com.is.events.model.Event;
+import com.is.events.model.EventLifecycleEvent;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.repository.EventsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Календарь доступности площадки: число OPEN / PENDING_APPROVAL ивентов по дням.
+ * Загружается одним GROUP BY на окно в 60 дней и хранится в кэше placeAvailability,
+ * дальше поддерживается инкрементально по EventLifecycleEvent (создание, смена статуса).
+ * Если загрузка разминулась с коммитом, расхождение живёт не дольше TTL кэша.
+ */
+@Slf4j
+@Service
+public class PlaceAvailabilityCalendar {
+
+    private static final int WINDOW_DAYS = 60;
+    private static final Set<EventStatus> COUNTED_STATUSES = EnumSet.of(EventStatus.OPEN, EventStatus.PENDING_APPROVAL);
+
+    private final EventsRepository eventsRepository;
+    private final Cache cache;
+
+    public PlaceAvailabilityCalendar(EventsRepository eventsRepository, CacheManager cacheManager) {
+        this.eventsRepository = eventsRepository;
+        this.cache = Objects.requireNonNull(cacheManager.getCache("placeAvailability"));
+    }
+
+    public List<EventAvailabilityDTO> getAvailability(Long placeId, LocalDate startDate, int days) {
+        LocalDate endDate = startDate.plusDays(days);
+        Calendar calendar = cache.get(placeId, Calendar.class);
+        if (calendar == null || !calendar.covers(startDate, endDate)) {
+            calendar = load(placeId, startDate, startDate.plusDays(Math.max(days, WINDOW_DAYS)));
+            cache.put(placeId, calendar);
+        }
+        Calendar loaded = calendar;
+        return startDate.datesUntil(endDate)
+                .map(date -> EventAvailabilityDTO.builder()
+                        .date(date)
+                        .eventCount(loaded.count(date))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEventLifecycle(EventLifecycleEvent lifecycleEvent) {
+        Event event = lifecycleEvent.getEvent();
+        int delta = switch (lifecycleEvent.getType()) {
+            case CREATED -> COUNTED_STATUSES.contains(event.getStatus()) ? 1 : 0;
+            case STATUS_CHANGED -> {
+                boolean was = lifecycleEvent.getPreviousStatus() != null && COUNTED_STATUSES.contains(lifecycleEvent.getPreviousStatus());
+                boolean is = COUNTED_STATUSES.contains(event.getStatus());
+                yield was == is ? 0 : (is ? 1 : -1);
+            }
+            default -> 0;
+        };
+        if (delta == 0 || event.getPlaceId() == null || event.getDateTime() == null) {
+            return;
+        }
+        Calendar calendar = cache.get(event.getPlaceId(), Calendar.class);
+        if (calendar != null) {
+            calendar.add(event.getDateTime().toLocalDate(), delta);
+        }
+    }
+
+    private Calendar load(Long placeId, LocalDate from, LocalDate to) {
+        Calendar calendar = new Calendar(from, to);
+        for (Object[] row : eventsRepository.countEventsPerDay(placeId, from.atStartOfDay(), to.atStartOfDay())) {
+            calendar.counts.put(((Date) row[0]).toLocalDate(), new AtomicInteger(((Number) row[1]).intValue()));
+        }
+        log.debug("Loaded availability calendar for place {} from {} to {}", placeId, from, to);
+        return calendar;
+    }
+
+    // [from, to) и счётчики по дням; отсутствующий день — 0
+    static final class Calendar {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final Map<LocalDate, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        Calendar(LocalDate from, LocalDate to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean covers(LocalDate start, LocalDate end) {
+            return !start.isBefore(from) && !end.isAfter(to);
+        }
+
+        int count(LocalDate date) {
+            AtomicInteger count = counts.get(date);
+            return count != null ? Math.max(count.get(), 0) : 0;
+        }
+
+        void add(LocalDate date, int delta) {
+            if (!date.isBefore(from) && date.isBefore(to)) {
+                counts.computeIfAbsent(date, key -> new AtomicInteger()).addAndGet(delta);
+            }
+        }
+    }
+}
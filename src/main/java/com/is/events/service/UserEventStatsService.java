@@ -0,0 +1,115 @@
+package com.is.events.service;
+
+import com.is.events.dto.UserEventStatisticsDTO;
+import com.is.events.model.CurrentParticipants;
+import com.is.events.model.Event;
+import com.is.events.model.EventLifecycleEvent;
+import com.is.events.model.UserEventStats;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.repository.UserEventStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class UserEventStatsService {
+
+    private final UserEventStatsRepository userEventStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${events.stats.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    public UserEventStatsService(UserEventStatsRepository userEventStatsRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.userEventStatsRepository = userEventStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Optional<UserEventStatisticsDTO> findStatistics(Long userId) {
+        return userEventStatsRepository.findById(userId).map(this::toDTO);
+    }
+
+    // Синхронно, в транзакции изменения ивента
+    @EventListener
+    public void onEventLifecycle(EventLifecycleEvent lifecycleEvent) {
+        Event event = lifecycleEvent.getEvent();
+        Long organizerId = event.getOrganizerEvent() != null ? event.getOrganizerEvent().getOrganizerId() : null;
+        switch (lifecycleEvent.getType()) {
+            case CREATED -> {
+                if (organizerId != null) {
+                    userEventStatsRepository.increment(organizerId, 1, 0);
+                }
+                if (event.getCurrentParticipants() != null && event.getCurrentParticipants().getParticipants() != null) {
+                    event.getCurrentParticipants().getParticipants().stream()
+                            .map(CurrentParticipants.Participant::getParticipantId)
+                            .filter(Objects::nonNull)
+                            .filter(participantId -> !participantId.equals(organizerId))
+                            .forEach(participantId -> userEventStatsRepository.increment(participantId, 0, 1));
+                }
+            }
+            case PARTICIPANT_JOINED -> {
+                if (!lifecycleEvent.getUserId().equals(organizerId)) {
+                    userEventStatsRepository.increment(lifecycleEvent.getUserId(), 0, 1);
+                }
+            }
+            case PARTICIPANT_LEFT -> {
+                if (!lifecycleEvent.getUserId().equals(organizerId)) {
+                    userEventStatsRepository.increment(lifecycleEvent.getUserId(), 0, -1);
+                }
+            }
+            case STATUS_CHANGED -> {
+                if (event.getStatus() == EventStatus.COMPLETED && lifecycleEvent.getPreviousStatus() != EventStatus.COMPLETED) {
+                    userEventStatsRepository.incrementCompleted(event.getEventId());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Блокировка и пересчёт в одной транзакции: блокировка ждёт транзакции с уже сделанными инкрементами
+    // и задерживает новые до коммита, поэтому пересчёт не затирает параллельные инкременты;
+    // повторный запуск даёт тот же результат
+    public int rebuildAll() {
+        Integer rows = transactionTemplate.execute(status -> {
+            userEventStatsRepository.lockForRebuild();
+            return userEventStatsRepository.rebuildAll();
+        });
+        log.info("Rebuilt event statistics for {} users", rows);
+        return rows;
+    }
+
+    // Разовый пересчёт после запуска, включается events.stats.rebuild-on-startup=true; не задерживает старт
+    @Async("eventDeliveryExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        try {
+            rebuildAll();
+        } catch (Exception e) {
+            log.error("Failed to rebuild event statistics: {}", e.getMessage());
+        }
+    }
+
+    private UserEventStatisticsDTO toDTO(UserEventStats stats) {
+        int asOrganizer = stats.getEventsAsOrganizer() != null ? stats.getEventsAsOrganizer() : 0;
+        int asParticipant = stats.getEventsAsParticipant() != null ? stats.getEventsAsParticipant() : 0;
+        return UserEventStatisticsDTO.builder()
+                .totalEvents(asOrganizer + asParticipant)
+                .eventsAsOrganizer(asOrganizer)
+                .eventsAsParticipant(asParticipant)
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.is.events.service;
+
+import com.is.events.model.CurrentParticipants;
+import com.is.events.model.Event;
+import com.is.events.model.EventLifecycleEvent;
+import com.is.events.repository.UserEventTimelineRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserEventTimelineService {
+
+    private static final String ORGANIZER = "ORGANIZER";
+    private static final String PARTICIPANT = "PARTICIPANT";
+
+    private final UserEventTimelineRepository userEventTimelineRepository;
+
+    // Синхронно, в транзакции изменения ивента
+    @EventListener
+    public void onEventLifecycle(EventLifecycleEvent lifecycleEvent) {
+        Event event = lifecycleEvent.getEvent();
+        switch (lifecycleEvent.getType()) {
+            case CREATED -> {
+                if (event.getOrganizerEvent() != null) {
+                    upsert(event, event.getOrganizerEvent().getOrganizerId(), ORGANIZER);
+                }
+                if (event.getCurrentParticipants() != null && event.getCurrentParticipants().getParticipants() != null) {
+                    event.getCurrentParticipants().getParticipants().stream()
+                            .map(CurrentParticipants.Participant::getParticipantId)
+                            .forEach(participantId -> upsert(event, participantId, PARTICIPANT));
+                }
+            }
+            case PARTICIPANT_JOINED, PARTICIPANT_CHECKED_IN -> upsert(event, lifecycleEvent.getUserId(), PARTICIPANT);
+            case PARTICIPANT_LEFT -> userEventTimelineRepository.deleteParticipant(lifecycleEvent.getUserId(), event.getEventId());
+            case STATUS_CHANGED -> userEventTimelineRepository.updateEvent(
+                    event.getEventId(), event.getStatus().name(), event.getDateTime());
+        }
+        log.debug("Timeline updated for event {} ({})", event.getEventId(), lifecycleEvent.getType());
+    }
+
+    private void upsert(Event event, Long userId, String role) {
+        if (userId == null) {
+            return;
+        }
+        userEventTimelineRepository.upsert(userId, event.getEventId(), role, event.getDateTime(), event.getStatus().name());
+    }
+}
@@ -0,0 +1,35 @@
+package com.is.events.service.outbox;
+
+import com.is.events.model.enums.EventMessageType;
+import com.is.events.service.EventMessageService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Системное сообщение в чат ивента
+@Component
+@RequiredArgsConstructor
+public class ChatMessageOutboxConsumer implements EventOutboxConsumer {
+
+    private final EventMessageService eventMessageService;
+
+    @Override
+    public String name() {
+        return "chat";
+    }
+
+    @Override
+    public boolean supports(EventMessageType messageType) {
+        // О завершении ивента сообщают push-уведомления, системного сообщения в чате нет
+        return messageType != EventMessageType.EVENT_COMPLETED;
+    }
+
+    @Override
+    public void consume(OutboxDelivery delivery) {
+        eventMessageService.sendEventMessage(delivery.event(), delivery.newStatus(), delivery.messageType(), delivery.participantName(), delivery.lang());
+    }
+
+    @Override
+    public boolean realtime() {
+        return true;
+    }
+}
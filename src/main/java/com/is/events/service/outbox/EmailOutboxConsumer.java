@@ -0,0 +1,48 @@
+package com.is.events.service.outbox;
+
+import com.is.auth.service.EmailService;
+import com.is.events.model.Event;
+import com.is.events.model.enums.EventMessageType;
+import com.is.places.model.Place;
+import com.is.places.repository.PlaceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Письма о создании ивента и смене его статуса
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxConsumer implements EventOutboxConsumer {
+
+    private static final Set<EventMessageType> SUPPORTED = EnumSet.of(
+            EventMessageType.EVENT_CREATED,
+            EventMessageType.STATUS_CHANGED,
+            EventMessageType.EVENT_STARTED,
+            EventMessageType.EVENT_EXPIRED);
+
+    private final EmailService emailService;
+    private final PlaceRepository placeRepository;
+
+    @Override
+    public String name() {
+        return "email";
+    }
+
+    @Override
+    public boolean supports(EventMessageType messageType) {
+        return SUPPORTED.contains(messageType);
+    }
+
+    @Override
+    public void consume(OutboxDelivery delivery) {
+        Event event = delivery.event();
+        Place place = placeRepository.findPlaceByPlaceId(event.getPlaceId());
+        if (delivery.messageType() == EventMessageType.EVENT_CREATED) {
+            emailService.sendEventCreated(event, delivery.lang(), place.getAddress(), place.getName());
+        } else {
+            emailService.sendEventStatusChangeNotification(event, delivery.newStatus(), delivery.lang(), place.getName(), place.getPhone());
+        }
+    }
+}
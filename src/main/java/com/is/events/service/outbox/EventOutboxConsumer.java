@@ -0,0 +1,22 @@
+package com.is.events.service.outbox;
+
+import com.is.events.model.enums.EventMessageType;
+
+/**
+ * Потребитель outbox. Доставка хотя бы один раз: при сбое другого потребителя сообщение повторяется,
+ * но уже отработавшие потребители пропускаются; исключение из consume означает повтор с backoff.
+ */
+public interface EventOutboxConsumer {
+
+    // Имя хранится в event_outbox.delivered_to, менять его нельзя
+    String name();
+
+    boolean supports(EventMessageType messageType);
+
+    void consume(OutboxDelivery delivery);
+
+    // Быстрые внутренние потребители идут на eventRealtimeExecutor, внешние (SMTP, FCM) — на eventDeliveryExecutor
+    default boolean realtime() {
+        return false;
+    }
+}
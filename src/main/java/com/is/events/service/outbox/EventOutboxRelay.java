@@ -0,0 +1,279 @@
+package com.is.events.service.outbox;
+
+import com.is.events.dto.EventDTO;
+import com.is.events.model.Event;
+import com.is.events.model.EventOutboxMessage;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.model.enums.OutboxStatus;
+import com.is.events.repository.EventOutboxRepository;
+import com.is.events.repository.EventsRepository;
+import com.is.events.service.EventDTOAssembler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Разбирает events.event_outbox пачками и доставляет сообщения потребителям.
+ * В пачке только головы очередей ивентов (по одному сообщению на ивент), поэтому сообщения пачки
+ * доставляются параллельно, а порядок внутри ивента сохраняется. Пачка забирается в аренду короткой
+ * транзакцией, доставляется вне транзакции, результат пишется второй короткой транзакцией;
+ * потребители, не уложившиеся в app.events.outbox.delivery-timeout-ms, прерываются. Сбой потребителя — повтор с
+ * экспоненциальным backoff до app.events.outbox.max-attempts, затем статус FAILED.
+ * Метрики: events.outbox.pending, events.outbox.lag.seconds, events.outbox.delivered / failures / dead,
+ * events.outbox.latency (от записи до доставки).
+ */
+@Slf4j
+@Component
+public class EventOutboxRelay {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+    private static final long MAX_BACKOFF_SECONDS = 600;
+
+    private final EventOutboxRepository eventOutboxRepository;
+    private final EventsRepository eventsRepository;
+    private final EventDTOAssembler eventDTOAssembler;
+    private final List<EventOutboxConsumer> consumers;
+    private final ThreadPoolTaskExecutor realtimeExecutor;
+    private final ThreadPoolTaskExecutor deliveryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Counter dead;
+    private final Timer latency;
+
+    @Value("${app.events.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.events.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.events.outbox.delivery-timeout-ms:30000}")
+    private long deliveryTimeoutMs;
+
+    @Value("${app.events.outbox.retention-days:7}")
+    private int retentionDays;
+
+    public EventOutboxRelay(EventOutboxRepository eventOutboxRepository,
+                            EventsRepository eventsRepository,
+                            EventDTOAssembler eventDTOAssembler,
+                            List<EventOutboxConsumer> consumers,
+                            @Qualifier("eventRealtimeExecutor") ThreadPoolTaskExecutor realtimeExecutor,
+                            @Qualifier("eventDeliveryExecutor") ThreadPoolTaskExecutor deliveryExecutor,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.eventOutboxRepository = eventOutboxRepository;
+        this.eventsRepository = eventsRepository;
+        this.eventDTOAssembler = eventDTOAssembler;
+        this.consumers = consumers;
+        this.realtimeExecutor = realtimeExecutor;
+        this.deliveryExecutor = deliveryExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("events.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("events.outbox.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+        this.dead = meterRegistry.counter("events.outbox.dead");
+        this.latency = meterRegistry.timer("events.outbox.latency");
+    }
+
+    @Scheduled(fixedDelayString = "${app.events.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            // Следующие сообщения тех же ивентов становятся головами после записи результатов пачки
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (relayBatch() == 0) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Event outbox relay failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedRate = 15000)
+    public void updateLagMetrics() {
+        try {
+            pending.set(eventOutboxRepository.countByStatus(OutboxStatus.PENDING));
+            LocalDateTime oldest = eventOutboxRepository.findOldestCreatedAt(OutboxStatus.PENDING);
+            lagSeconds.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()) : 0);
+        } catch (Exception e) {
+            log.warn("Failed to update event outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 15 1 * * ?")
+    public void purgeProcessed() {
+        int removed = eventOutboxRepository.deleteProcessedBefore(OutboxStatus.DONE, LocalDateTime.now().minusDays(retentionDays));
+        log.info("Purged {} delivered event outbox messages", removed);
+    }
+
+    private int relayBatch() {
+        String token = UUID.randomUUID().toString();
+        List<EventOutboxMessage> batch = transactionTemplate.execute(status -> claim(token));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<Claimed> claimed = batch.stream().map(this::prepareSafely).toList();
+        // Доставка вне транзакции: строки outbox не заблокированы, их держит только аренда
+        List<Dispatch> dispatches = claimed.stream().map(this::dispatch).toList();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deliveryTimeoutMs);
+        Map<Long, Outcome> outcomes = new LinkedHashMap<>();
+        dispatches.forEach(dispatch -> outcomes.put(dispatch.message().getId(), await(dispatch, deadline)));
+        transactionTemplate.executeWithoutResult(status -> record(token, outcomes));
+        return batch.size();
+    }
+
+    private List<EventOutboxMessage> claim(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EventOutboxMessage> batch = eventOutboxRepository.claimNextBatch(now, batchSize);
+        // Аренда с запасом на сборку DTO и запись результата после таймаута доставки
+        LocalDateTime until = now.plus(Duration.ofMillis(deliveryTimeoutMs * 2));
+        batch.forEach(message -> message.claim(token, until));
+        return batch;
+    }
+
+    // Каждое сообщение в своей транзакции: сбой сборки одного становится ошибкой попытки этого сообщения
+    // (backoff, max-attempts, FAILED), а не срывает пачку и не блокирует очередь ивента
+    private Claimed prepareSafely(EventOutboxMessage message) {
+        try {
+            return readOnlyTransactionTemplate.execute(status -> prepare(message));
+        } catch (Exception e) {
+            log.warn("Failed to prepare outbox message {} for event {}: {}", message.getId(), message.getEventId(), e.getMessage());
+            meterRegistry.counter("events.outbox.failures", "consumer", "prepare").increment();
+            return new Claimed(message, null, List.of(), "prepare: " + e.getMessage());
+        }
+    }
+
+    private Claimed prepare(EventOutboxMessage message) {
+        Event event = eventsRepository.findById(message.getEventId()).orElse(null);
+        if (event == null) {
+            log.warn("Event {} for outbox message {} no longer exists, skipping", message.getEventId(), message.getId());
+            return new Claimed(message, null, List.of(), null);
+        }
+
+        Set<String> delivered = message.deliveredConsumers();
+        List<EventOutboxConsumer> targets = consumers.stream()
+                .filter(consumer -> consumer.supports(message.getMessageType()))
+                .filter(consumer -> !delivered.contains(consumer.name()))
+                .toList();
+        if (targets.isEmpty()) {
+            return new Claimed(message, null, targets, null);
+        }
+
+        EventDTO eventDTO = eventDTOAssembler.toDTO(event);
+        // Строки до V17 без снимка статуса доставляются по текущему статусу
+        EventStatus newStatus = message.getNewStatus() != null ? message.getNewStatus() : event.getStatus();
+        OutboxDelivery delivery = new OutboxDelivery(message.getId(), event, eventDTO, message.getMessageType(),
+                message.getPreviousStatus(), newStatus,
+                message.getParticipantId(), message.getParticipantName(), message.getLang());
+        return new Claimed(message, delivery, targets, null);
+    }
+
+    private Dispatch dispatch(Claimed claimed) {
+        // submit, а не CompletableFuture: cancel(true) у FutureTask прерывает зависшего потребителя
+        Map<String, Future<?>> futures = new LinkedHashMap<>();
+        for (EventOutboxConsumer consumer : claimed.targets()) {
+            ThreadPoolTaskExecutor executor = consumer.realtime() ? realtimeExecutor : deliveryExecutor;
+            futures.put(consumer.name(), executor.submit(() -> consumer.consume(claimed.delivery())));
+        }
+        return new Dispatch(claimed.message(), futures, claimed.error());
+    }
+
+    private Outcome await(Dispatch dispatch, long deadline) {
+        Set<String> delivered = new LinkedHashSet<>();
+        List<String> errors = new ArrayList<>();
+        if (dispatch.error() != null) {
+            errors.add(dispatch.error());
+        }
+        dispatch.futures().forEach((consumer, future) -> {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(consumer);
+                meterRegistry.counter("events.outbox.delivered", "consumer", consumer).increment();
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                errors.add(consumer + ": timeout");
+                meterRegistry.counter("events.outbox.failures", "consumer", consumer).increment();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                errors.add(consumer + ": " + cause.getMessage());
+                meterRegistry.counter("events.outbox.failures", "consumer", consumer).increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                errors.add(consumer + ": interrupted");
+            }
+        });
+        return new Outcome(delivered, errors);
+    }
+
+    private void record(String token, Map<Long, Outcome> outcomes) {
+        for (EventOutboxMessage message : eventOutboxRepository.lockAllById(outcomes.keySet())) {
+            if (!message.isClaimedBy(token)) {
+                // Аренда истекла и сообщение забрал другой проход — результат записывает он
+                log.warn("Outbox message {} lease expired before its delivery result was recorded", message.getId());
+                continue;
+            }
+            message.release();
+            complete(message, outcomes.get(message.getId()));
+        }
+    }
+
+    private void complete(EventOutboxMessage message, Outcome outcome) {
+        outcome.delivered().forEach(message::markDelivered);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (outcome.errors().isEmpty()) {
+            message.setStatus(OutboxStatus.DONE);
+            message.setProcessedAt(now);
+            message.setLastError(null);
+            latency.record(Duration.between(message.getCreatedAt(), now));
+            return;
+        }
+
+        message.setAttempts(message.getAttempts() + 1);
+        message.setLastError(String.join("; ", outcome.errors()));
+        if (message.getAttempts() >= maxAttempts) {
+            message.setStatus(OutboxStatus.FAILED);
+            message.setProcessedAt(now);
+            dead.increment();
+            log.error("Outbox message {} ({} for event {}) failed after {} attempts: {}",
+                    message.getId(), message.getMessageType(), message.getEventId(), message.getAttempts(), message.getLastError());
+        } else {
+            long backoff = Math.min(MAX_BACKOFF_SECONDS, 1L << Math.min(message.getAttempts(), 20));
+            message.setNextAttemptAt(now.plusSeconds(backoff));
+            log.warn("Outbox message {} ({} for event {}) will be retried in {}s: {}",
+                    message.getId(), message.getMessageType(), message.getEventId(), backoff, message.getLastError());
+        }
+    }
+
+    // error — сообщение не удалось подготовить, потребители не вызываются
+    private record Claimed(EventOutboxMessage message, OutboxDelivery delivery, List<EventOutboxConsumer> targets, String error) {
+    }
+
+    private record Outcome(Set<String> delivered, List<String> errors) {
+    }
+
+    private record Dispatch(EventOutboxMessage message, Map<String, Future<?>> futures, String error) {
+    }
+}
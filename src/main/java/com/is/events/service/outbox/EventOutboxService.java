@@ -0,0 +1,57 @@
+package com.is.events.service.outbox;
+
+import com.is.events.model.Event;
+import com.is.events.model.EventOutboxMessage;
+import com.is.events.model.enums.EventMessageType;
+import com.is.events.model.enums.EventStatus;
+import com.is.events.model.enums.OutboxStatus;
+import com.is.events.repository.EventOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись в outbox в транзакции изменения ивента: запрос платит одной вставкой,
+ * чат, WebSocket, push и email доставляет EventOutboxRelay.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventOutboxService {
+
+    private final EventOutboxRepository eventOutboxRepository;
+
+    @Transactional
+    public void enqueue(Event event, EventMessageType messageType, String lang) {
+        enqueue(event, messageType, null, null, lang);
+    }
+
+    @Transactional
+    public void enqueue(Event event, EventMessageType messageType, Long participantId, String participantName, String lang) {
+        save(event, messageType, null, participantId, participantName, lang);
+    }
+
+    // Смена статуса: переход previousStatus -> event.getStatus() сохраняется в строке outbox
+    @Transactional
+    public void enqueueStatusChange(Event event, EventStatus previousStatus, EventMessageType messageType, String lang) {
+        save(event, messageType, previousStatus, null, null, lang);
+    }
+
+    private void save(Event event, EventMessageType messageType, EventStatus previousStatus,
+                      Long participantId, String participantName, String lang) {
+        LocalDateTime now = LocalDateTime.now();
+        eventOutboxRepository.save(EventOutboxMessage.builder()
+                .eventId(event.getEventId())
+                .messageType(messageType)
+                .previousStatus(previousStatus)
+                .newStatus(event.getStatus())
+                .participantId(participantId)
+                .participantName(participantName)
+                .lang(lang)
+                .status(OutboxStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+}
@@ -0,0 +1,23 @@
+package com.is.events.service.outbox;
+
+import com.is.events.dto.EventDTO;
+import com.is.events.model.Event;
+import com.is.events.model.enums.EventMessageType;
+import com.is.events.model.enums.EventStatus;
+
+/**
+ * Сообщение outbox, подготовленное к доставке: актуальный Event и EventDTO, собранный один раз на сообщение.
+ * previousStatus/newStatus — переход статуса, зафиксированный при записи в outbox; тексты чата, push и
+ * email строятся по нему, а не по event.getStatus(), который к моменту доставки мог измениться.
+ */
+public record OutboxDelivery(
+        Long messageId,
+        Event event,
+        EventDTO eventDTO,
+        EventMessageType messageType,
+        EventStatus previousStatus,
+        EventStatus newStatus,
+        Long participantId,
+        String participantName,
+        String lang) {
+}
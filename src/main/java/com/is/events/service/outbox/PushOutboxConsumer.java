@@ -0,0 +1,98 @@
+package com.is.events.service.outbox;
+
+import com.is.auth.model.user.UserAdditionalInfo;
+import com.is.auth.repository.UserAdditionalInfoRepository;
+import com.is.auth.repository.UserRepository;
+import com.is.auth.service.PushNotificationService;
+import com.is.events.model.Event;
+import com.is.events.model.EventParticipant;
+import com.is.events.model.enums.EventMessageType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// FCM: новый ивент по избранному спорту, вход/выход участника, смена статуса, завершение ивента
+@Component
+@RequiredArgsConstructor
+public class PushOutboxConsumer implements EventOutboxConsumer {
+
+    private static final Set<EventMessageType> SUPPORTED = EnumSet.of(
+            EventMessageType.EVENT_CREATED,
+            EventMessageType.PARTICIPANT_JOINED,
+            EventMessageType.PARTICIPANT_LEFT,
+            EventMessageType.STATUS_CHANGED,
+            EventMessageType.EVENT_STARTED,
+            EventMessageType.EVENT_COMPLETED);
+
+    // Мультиязычные тексты уведомлений о завершении ивента
+    private static final Map<String, String> COMPLETED_PARTICIPANT_TEXTS = Map.of(
+        "ru", "🏁 Всё! Игра сделана!\nВы крутые – сегодня был настоящий движ! 💥\nНе забудьте отблагодарить организатора – он всё устроил 💼→⚽️\nОценка — это ваш лайк в реальной жизни 🌟",
+        "uz", "🏁 Tamom! O‘yin tugadi!\nBugun haqiqiy o‘yin / jang / harakat bo‘ldi – sizlar zo‘rsiz! 💥\nHammasini uyushtirgan tashkilotchiga rahmat aytishni unutmang 💼→⚽️\nBaholash – bu haqiqiy hayotdagi “like” 🌟",
+        "en", "🏁 That’s a wrap! Game over!\nYou rocked it — what a match / clash / epic vibe today! 💥\nDon’t forget to thank the organizer — they made it all happen 💼→⚽️\nA rating is your real-life like 🌟"
+    );
+    private static final Map<String, String> COMPLETED_ORGANIZER_TEXTS = Map.of(
+        "ru", "🎉 Миссия выполнена! Ивент на ура!\nКоманда собралась, эмоции зарядили — время выдохнуть 😮‍💨\nТеперь оцените своих игроков — кто был душой компании, а кто «тихо, но метко» 🎯\nВаш отзыв — как медаль на память 🏅",
+        "uz", "🎉 Vazifa bajarildi! Tadbir zo‘r o‘tdi!\nJamoa yig‘ildi, hissiyotlar chaqnadi — endi chuqur nafas oling 😮‍💨\nEndi ishtirokchilaringizni baholang — kim kompaniyaning yuragi bo‘ldi, kim esa «jim-jit, lekin aniq» 🎯\nSizning fikringiz – bu esdalik medali 🏅",
+        "en", "🎉 Mission accomplished! The event was a blast!\nThe team showed up, the energy was high — now take a deep breath 😮‍💨\nTime to rate your players — who brought the fire, and who played it cool but sharp 🎯\nYour feedback is a medal of honor 🏅"
+    );
+
+    private final PushNotificationService pushNotificationService;
+    private final UserRepository userRepository;
+    private final UserAdditionalInfoRepository userAdditionalInfoRepository;
+
+    @Override
+    public String name() {
+        return "push";
+    }
+
+    @Override
+    public boolean supports(EventMessageType messageType) {
+        return SUPPORTED.contains(messageType);
+    }
+
+    @Override
+    public void consume(OutboxDelivery delivery) {
+        Event event = delivery.event();
+        switch (delivery.messageType()) {
+            case EVENT_CREATED -> pushNotificationService.sendNewEventNotification(event);
+            case PARTICIPANT_JOINED -> userRepository.findById(delivery.participantId())
+                    .ifPresent(user -> pushNotificationService.sendParticipantJoinedNotification(event, new EventParticipant(event, user)));
+            case PARTICIPANT_LEFT -> userRepository.findById(delivery.participantId())
+                    .ifPresent(user -> pushNotificationService.sendParticipantLeftNotification(event, new EventParticipant(event, user)));
+            case EVENT_COMPLETED -> sendCompletedNotifications(event);
+            default -> pushNotificationService.sendEventStatusChangeNotification(event, delivery.newStatus());
+        }
+    }
+
+    private void sendCompletedNotifications(Event event) {
+        Long organizerId = event.getOrganizerEvent().getOrganizerId();
+        if (event.getCurrentParticipants() != null && event.getCurrentParticipants().getParticipants() != null) {
+            event.getCurrentParticipants().getParticipants().forEach(participant -> {
+                if (!participant.getParticipantId().equals(organizerId)) {
+                    pushNotificationService.sendSimpleNotification(
+                        participant.getParticipantId(),
+                        "Ивент завершился!",
+                        textFor(participant.getParticipantId(), COMPLETED_PARTICIPANT_TEXTS),
+                        "EVENT_COMPLETED"
+                    );
+                }
+            });
+        }
+        pushNotificationService.sendSimpleNotification(
+            organizerId,
+            "Ивент завершился!",
+            textFor(organizerId, COMPLETED_ORGANIZER_TEXTS),
+            "EVENT_COMPLETED_ORG"
+        );
+    }
+
+    private String textFor(Long userId, Map<String, String> texts) {
+        String lang = userAdditionalInfoRepository.findById(userId)
+                .map(UserAdditionalInfo::getLanguage)
+                .orElse("ru");
+        return texts.getOrDefault(lang, texts.get("ru"));
+    }
+}
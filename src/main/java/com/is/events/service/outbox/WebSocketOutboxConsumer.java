@@ -0,0 +1,35 @@
+package com.is.events.service.outbox;
+
+import com.is.events.model.enums.EventMessageType;
+import com.is.events.service.WebSocketService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Обновление ленты площадки и карточки ивента по WebSocket
+@Component
+@RequiredArgsConstructor
+public class WebSocketOutboxConsumer implements EventOutboxConsumer {
+
+    private final WebSocketService webSocketService;
+
+    @Override
+    public String name() {
+        return "websocket";
+    }
+
+    @Override
+    public boolean supports(EventMessageType messageType) {
+        return true;
+    }
+
+    @Override
+    public void consume(OutboxDelivery delivery) {
+        webSocketService.notifyEventUpdate(delivery.event().getPlaceId());
+        webSocketService.sendEventUpdate(delivery.eventDTO());
+    }
+
+    @Override
+    public boolean realtime() {
+        return true;
+    }
+}
@@ -0,0 +1,15 @@
+package com.is.friendship.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FriendshipCountsDTO {
+    private long friends;
+    private long incomingRequests;
+}
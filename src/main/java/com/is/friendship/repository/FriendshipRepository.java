@@ -85,4 +85,14 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
         @Param("status") FriendshipStatus status, 
         Pageable pageable
     );
-} 
\ No newline at end of file
+
+    @Query("SELECT COUNT(f) FROM Friendship f WHERE " +
+           "(f.user1 = :user OR f.user2 = :user) AND " +
+           "f.status = :status")
+    long countByUserAndStatus(@Param("user") User user, @Param("status") FriendshipStatus status);
+
+    @Query("SELECT COUNT(f) FROM Friendship f WHERE " +
+           "f.user2 = :user AND " +
+           "f.status = :status")
+    long countIncomingRequests(@Param("user") User user, @Param("status") FriendshipStatus status);
+}
@@ -5,6 +5,7 @@ import com.is.auth.model.user.UserAdditionalInfo;
 import com.is.auth.repository.UserRepository;
 import com.is.auth.repository.UserAdditionalInfoRepository;
 import com.is.auth.service.PushNotificationService;
+import com.is.friendship.dto.FriendshipCountsDTO;
 import com.is.friendship.dto.FriendshipListResponse;
 import com.is.friendship.dto.FriendshipRequest;
 import com.is.friendship.dto.FriendshipResponse;
@@ -216,6 +217,14 @@ public class FriendshipService {
             .build();
     }
 
+    // Только счётчики, без загрузки страниц дружб
+    public FriendshipCountsDTO getFriendshipCounts(User user) {
+        return FriendshipCountsDTO.builder()
+            .friends(friendshipRepository.countByUserAndStatus(user, FriendshipStatus.ACCEPTED))
+            .incomingRequests(friendshipRepository.countIncomingRequests(user, FriendshipStatus.PENDING))
+            .build();
+    }
+
     public FriendshipListResponse getIncomingRequests(Long userId, Pageable pageable) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new FriendshipException(FriendshipException.ErrorType.USER_NOT_FOUND));
@@ -0,0 +1,31 @@
+package com.is.home.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class HomeExecutorConfig {
+
+    @Value("${app.home.pool-size:8}")
+    private int poolSize;
+
+    @Value("${app.home.queue-capacity:200}")
+    private int queueCapacity;
+
+    // Ограниченный пул для под-запросов /api/v1/home; при переполнении задача отклоняется,
+    // а секция уходит в missing, а не выполняется в потоке запроса
+    @Bean
+    public ThreadPoolTaskExecutor homeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("home-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
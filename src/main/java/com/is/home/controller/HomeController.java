@@ -0,0 +1,27 @@
+package com.is.home.controller;
+
+import com.is.events.dto.EventFields;
+import com.is.home.dto.HomeDTO;
+import com.is.home.service.HomeService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/home")
+@RequiredArgsConstructor
+public class HomeController {
+    private final HomeService homeService;
+
+    @GetMapping
+    @Operation(summary = "Стартовый экран одним запросом",
+            description = "Ближайший и текущий ивент, ивенты на сегодня, последние завершённые, статистика, уведомления и счётчики друзей. fields — как у /api/v1/events")
+    public ResponseEntity<HomeDTO> getHome(
+            @RequestHeader Long userId,
+            @RequestParam(required = false) String fields) {
+        return homeService.getHome(userId, EventFields.parse(fields))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,24 @@
+package com.is.home.dto;
+
+import com.is.events.dto.EventDTO;
+import com.is.events.dto.NearestEventDTO;
+import com.is.events.dto.UserEventStatisticsDTO;
+import com.is.friendship.dto.FriendshipCountsDTO;
+import com.is.notification.dto.NotificationDTO;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Стартовый экран одним ответом; секции, не успевшие к таймауту или упавшие, перечислены в missing
+@Data
+public class HomeDTO {
+    private NearestEventDTO nearestEvent;
+    private EventDTO currentEvent;
+    private List<EventDTO> todayEvents;
+    private List<EventDTO> lastCompletedEvents;
+    private UserEventStatisticsDTO statistics;
+    private List<NotificationDTO> notifications;
+    private FriendshipCountsDTO friendships;
+    private List<String> missing = new ArrayList<>();
+}
@@ -0,0 +1,110 @@
+package com.is.home.service;
+
+import com.is.auth.model.user.User;
+import com.is.auth.repository.UserRepository;
+import com.is.events.dto.EventFields;
+import com.is.events.service.EventsService;
+import com.is.friendship.service.FriendshipService;
+import com.is.home.dto.HomeDTO;
+import com.is.notification.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Собирает стартовый экран: пользователь резолвится один раз, чтения идут параллельно на homeExecutor.
+ * Общий дедлайн app.home.timeout-ms; не успевшие секции отменяются и попадают в HomeDTO.missing.
+ */
+@Slf4j
+@Service
+public class HomeService {
+
+    private final UserRepository userRepository;
+    private final EventsService eventsService;
+    private final NotificationService notificationService;
+    private final FriendshipService friendshipService;
+    private final ThreadPoolTaskExecutor homeExecutor;
+
+    @Value("${app.home.timeout-ms:1500}")
+    private long timeoutMs;
+
+    public HomeService(UserRepository userRepository,
+                       EventsService eventsService,
+                       NotificationService notificationService,
+                       FriendshipService friendshipService,
+                       @Qualifier("homeExecutor") ThreadPoolTaskExecutor homeExecutor) {
+        this.userRepository = userRepository;
+        this.eventsService = eventsService;
+        this.notificationService = notificationService;
+        this.friendshipService = friendshipService;
+        this.homeExecutor = homeExecutor;
+    }
+
+    public Optional<HomeDTO> getHome(Long userId, EventFields fields) {
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isEmpty()) {
+            return Optional.empty();
+        }
+
+        HomeDTO home = new HomeDTO();
+        Section<?>[] sections = {
+                submit("nearestEvent", () -> eventsService.getNearestEventForUser(userId), home::setNearestEvent),
+                submit("currentEvent", () -> eventsService.getCurrentInProgressEventForUser(userId, fields), home::setCurrentEvent),
+                submit("todayEvents", () -> eventsService.getEventsForToday(userId, fields), home::setTodayEvents),
+                submit("lastCompletedEvents", () -> eventsService.getLastCompletedEventsForUser(userId, fields), home::setLastCompletedEvents),
+                submit("statistics", () -> eventsService.getUserEventStatistics(userId), home::setStatistics),
+                submit("notifications", () -> notificationService.getUserNotifications(userId), home::setNotifications),
+                submit("friendships", () -> friendshipService.getFriendshipCounts(user.get()), home::setFriendships)
+        };
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (Section<?> section : sections) {
+            if (!section.await(deadline)) {
+                home.getMissing().add(section.name());
+            }
+        }
+        if (!home.getMissing().isEmpty()) {
+            log.warn("Home for user {} returned without sections {}", userId, home.getMissing());
+        }
+        return Optional.of(home);
+    }
+
+    // submit возвращает FutureTask: cancel(true) прерывает поток homeExecutor, а не только помечает результат,
+    // как у CompletableFuture, поэтому опоздавшая секция не держит поток пула после ответа
+    private <T> Section<T> submit(String name, Supplier<T> supplier, Consumer<T> setter) {
+        Future<T> future;
+        try {
+            future = homeExecutor.submit(supplier::get);
+        } catch (RejectedExecutionException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return new Section<>(name, future, setter);
+    }
+
+    private record Section<T>(String name, Future<T> future, Consumer<T> setter) {
+
+        // true, если секция успела и заполнена
+        boolean await(long deadline) {
+            try {
+                setter.accept(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                return true;
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Home section {} timed out", name);
+            } catch (ExecutionException e) {
+                log.warn("Home section {} failed: {}", name, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+            }
+            return false;
+        }
+    }
+}
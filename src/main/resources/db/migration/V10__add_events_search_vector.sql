@@ -0,0 +1,87 @@
+-- Полнотекстовый поиск по ивентам: title, description, название спорта и площадки.
+-- Вектор строится сразу для трёх конфигураций (russian / english / simple), поэтому
+-- запрос с любой из них матчится одним GIN-индексом.
+ALTER TABLE events.events
+    ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION events.event_search_vector_part(cfg regconfig, title text, description text,
+                                                           sport_name text, place_name text)
+    RETURNS tsvector
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT setweight(to_tsvector(cfg, coalesce(title, '')), 'A')
+           || setweight(to_tsvector(cfg, concat_ws(' ', sport_name, place_name)), 'B')
+           || setweight(to_tsvector(cfg, coalesce(description, '')), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION events.event_search_vector(title text, description text,
+                                                      sport_name text, place_name text)
+    RETURNS tsvector
+    LANGUAGE sql
+    IMMUTABLE
+AS
+$$
+SELECT events.event_search_vector_part('russian', title, description, sport_name, place_name)
+           || events.event_search_vector_part('english', title, description, sport_name, place_name)
+           || events.event_search_vector_part('simple', title, description, sport_name, place_name)
+$$;
+
+-- Hibernate пишет все колонки при каждом апдейте, поэтому пересчитываем только при реальном изменении
+CREATE OR REPLACE FUNCTION events.events_search_vector_trigger()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF TG_OP = 'INSERT'
+        OR NEW.title IS DISTINCT FROM OLD.title
+        OR NEW.description IS DISTINCT FROM OLD.description
+        OR NEW.sport_event ->> 'sportName' IS DISTINCT FROM OLD.sport_event ->> 'sportName'
+        OR NEW.place_id IS DISTINCT FROM OLD.place_id
+        OR NEW.search_vector IS NULL THEN
+        NEW.search_vector := events.event_search_vector(
+                NEW.title, NEW.description, NEW.sport_event ->> 'sportName',
+                (SELECT p.name FROM locations.places p WHERE p.place_id = NEW.place_id));
+    END IF;
+    RETURN NEW;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_events_search_vector ON events.events;
+CREATE TRIGGER trg_events_search_vector
+    BEFORE INSERT OR UPDATE
+    ON events.events
+    FOR EACH ROW
+EXECUTE PROCEDURE events.events_search_vector_trigger();
+
+-- Переименование площадки пересобирает векторы её ивентов
+CREATE OR REPLACE FUNCTION events.places_name_search_vector_trigger()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    UPDATE events.events e
+    SET search_vector = events.event_search_vector(e.title, e.description, e.sport_event ->> 'sportName', NEW.name)
+    WHERE e.place_id = NEW.place_id;
+    RETURN NEW;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_places_name_search_vector ON locations.places;
+CREATE TRIGGER trg_places_name_search_vector
+    AFTER UPDATE OF name
+    ON locations.places
+    FOR EACH ROW
+    WHEN (NEW.name IS DISTINCT FROM OLD.name)
+EXECUTE PROCEDURE events.places_name_search_vector_trigger();
+
+-- Бэкфилл существующих строк
+UPDATE events.events e
+SET search_vector = events.event_search_vector(
+        e.title, e.description, e.sport_event ->> 'sportName',
+        (SELECT p.name FROM locations.places p WHERE p.place_id = e.place_id));
+
+CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events.events USING GIN (search_vector);
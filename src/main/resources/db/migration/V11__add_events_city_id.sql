@@ -0,0 +1,34 @@
+-- Город площадки денормализуем в events для городской ленты без обхода по площадкам
+ALTER TABLE events.events
+    ADD COLUMN IF NOT EXISTS city_id INTEGER;
+
+-- Бэкфилл существующих строк
+UPDATE events.events e
+SET city_id = p.current_location_city_id
+FROM locations.places p
+WHERE p.place_id = e.place_id
+  AND e.city_id IS DISTINCT FROM p.current_location_city_id;
+
+-- Смена города площадки переносит её ивенты
+CREATE OR REPLACE FUNCTION events.places_city_sync_trigger()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    UPDATE events.events
+    SET city_id = NEW.current_location_city_id
+    WHERE place_id = NEW.place_id;
+    RETURN NEW;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_places_city_sync ON locations.places;
+CREATE TRIGGER trg_places_city_sync
+    AFTER UPDATE OF current_location_city_id
+    ON locations.places
+    FOR EACH ROW
+    WHEN (NEW.current_location_city_id IS DISTINCT FROM OLD.current_location_city_id)
+EXECUTE PROCEDURE events.places_city_sync_trigger();
+
+CREATE INDEX IF NOT EXISTS idx_events_city_status_date ON events.events (city_id, status, date_time);
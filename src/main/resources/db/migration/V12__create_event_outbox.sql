@@ -0,0 +1,24 @@
+-- Transactional outbox побочных эффектов ивентов (чат, WebSocket, push, email).
+-- Пишется в одной транзакции с изменением events.events, разбирается EventOutboxRelay.
+CREATE TABLE IF NOT EXISTS events.event_outbox
+(
+    id               BIGSERIAL PRIMARY KEY,
+    event_id         BIGINT       NOT NULL,
+    message_type     VARCHAR(40)  NOT NULL,
+    participant_id   BIGINT,
+    participant_name VARCHAR(255),
+    lang             VARCHAR(8),
+    status           VARCHAR(16)  NOT NULL DEFAULT 'PENDING',
+    attempts         INTEGER      NOT NULL DEFAULT 0,
+    -- Потребители, уже обработавшие сообщение; при повторе они пропускаются
+    delivered_to     VARCHAR(255),
+    last_error       TEXT,
+    created_at       TIMESTAMP    NOT NULL,
+    next_attempt_at  TIMESTAMP    NOT NULL,
+    processed_at     TIMESTAMP
+);
+
+-- Голова очереди каждого ивента и готовые к отправке сообщения
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending_event ON events.event_outbox (event_id, id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending_due ON events.event_outbox (next_attempt_at, id) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_event_outbox_processed ON events.event_outbox (processed_at) WHERE status <> 'PENDING';
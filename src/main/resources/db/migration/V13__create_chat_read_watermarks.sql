@@ -0,0 +1,22 @@
+-- Прочитанность чата: одна строка на (ивент, пользователь) вместо read_by jsonb в каждом сообщении
+CREATE TABLE IF NOT EXISTS events.chat_read_watermarks (
+    event_id             BIGINT    NOT NULL,
+    user_id              BIGINT    NOT NULL,
+    last_read_message_id BIGINT    NOT NULL,
+    updated_at           TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (event_id, user_id)
+);
+
+-- Счётчик непрочитанных: count по (event_id, message_id > watermark)
+CREATE INDEX IF NOT EXISTS idx_event_messages_event_message
+    ON events.event_messages (event_id, message_id);
+
+-- Бэкфилл: последнее сообщение, которое пользователь отмечал прочитанным
+INSERT INTO events.chat_read_watermarks (event_id, user_id, last_read_message_id)
+SELECT m.event_id, r.user_id::BIGINT, MAX(m.message_id)
+FROM events.event_messages m
+CROSS JOIN LATERAL jsonb_array_elements_text(m.read_by) AS r(user_id)
+WHERE m.read_by IS NOT NULL
+  AND jsonb_typeof(m.read_by) = 'array'
+GROUP BY m.event_id, r.user_id
+ON CONFLICT (event_id, user_id) DO NOTHING;
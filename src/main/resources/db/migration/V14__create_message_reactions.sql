@@ -0,0 +1,21 @@
+-- Реакции отдельными строками: добавление и снятие — атомарные INSERT / DELETE без read-modify-write jsonb
+CREATE TABLE IF NOT EXISTS events.message_reactions (
+    message_id BIGINT      NOT NULL,
+    reaction   VARCHAR(64) NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    created_at TIMESTAMP   NOT NULL DEFAULT now(),
+    PRIMARY KEY (message_id, reaction, user_id)
+);
+
+-- Бэкфилл из reactions jsonb ({"reaction": [userId, ...]}); ключи длиннее колонки и нечисловые id пропускаются
+INSERT INTO events.message_reactions (message_id, reaction, user_id)
+SELECT m.message_id, r.key, u.user_id::BIGINT
+FROM events.event_messages m
+CROSS JOIN LATERAL jsonb_each(m.reactions) AS r(key, users)
+CROSS JOIN LATERAL jsonb_array_elements_text(r.users) AS u(user_id)
+WHERE m.reactions IS NOT NULL
+  AND jsonb_typeof(m.reactions) = 'object'
+  AND jsonb_typeof(r.users) = 'array'
+  AND length(r.key) BETWEEN 1 AND 64
+  AND u.user_id ~ '^[0-9]{1,18}$'
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,25 @@
+-- message_id выдаётся блоками на инстанс и не упорядочен во времени между инстансами,
+-- поэтому порядок чата и водяные знаки прочитанности — по (sent_at, message_id)
+UPDATE events.event_messages
+SET sent_at = timestamp
+WHERE sent_at IS NULL AND timestamp IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_event_messages_event_sent
+    ON events.event_messages (event_id, sent_at, message_id);
+
+ALTER TABLE events.chat_read_watermarks
+    ADD COLUMN IF NOT EXISTS last_read_sent_at TIMESTAMP;
+
+UPDATE events.chat_read_watermarks w
+SET last_read_sent_at = m.sent_at
+FROM events.event_messages m
+WHERE m.message_id = w.last_read_message_id
+  AND w.last_read_sent_at IS NULL;
+
+-- Сообщение водяного знака не найдено: позицию во времени не восстановить, отсчёт начинается сначала
+UPDATE events.chat_read_watermarks
+SET last_read_sent_at = TIMESTAMP '1970-01-01 00:00:00'
+WHERE last_read_sent_at IS NULL;
+
+ALTER TABLE events.chat_read_watermarks
+    ALTER COLUMN last_read_sent_at SET NOT NULL;
@@ -0,0 +1,6 @@
+-- Аренда сообщения outbox: релей забирает пачку короткой транзакцией и доставляет её вне транзакции.
+-- Пока locked_until в будущем, сообщение (и следующие по ивенту) не выдаются другим инстансам;
+-- claim_token отсекает запись результата по истёкшей аренде.
+ALTER TABLE events.event_outbox
+    ADD COLUMN IF NOT EXISTS locked_until TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS claim_token  VARCHAR(36);
@@ -0,0 +1,5 @@
+-- Снимок перехода статуса ивента на момент записи в outbox: потребители строят тексты по нему,
+-- а не по текущему статусу, который к моменту доставки мог измениться ещё раз.
+ALTER TABLE events.event_outbox
+    ADD COLUMN IF NOT EXISTS previous_status VARCHAR(32),
+    ADD COLUMN IF NOT EXISTS new_status      VARCHAR(32);
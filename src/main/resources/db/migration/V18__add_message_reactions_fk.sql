@@ -0,0 +1,13 @@
+-- Реакции удаляются вместе с сообщением; осиротевшие строки убираются до создания ключа
+DELETE FROM events.message_reactions r
+WHERE NOT EXISTS (SELECT 1 FROM events.event_messages m WHERE m.message_id = r.message_id);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'fk_message_reactions_message') THEN
+        ALTER TABLE events.message_reactions
+            ADD CONSTRAINT fk_message_reactions_message
+            FOREIGN KEY (message_id) REFERENCES events.event_messages (message_id) ON DELETE CASCADE;
+    END IF;
+END
+$$;
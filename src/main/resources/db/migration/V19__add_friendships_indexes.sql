@@ -0,0 +1,4 @@
+-- Запросы FriendshipRepository ищут по одной стороне пары и статусу, OR по user1/user2 — через BitmapOr
+CREATE INDEX IF NOT EXISTS idx_friendships_user1_status ON friendships (user1_id, status);
+CREATE INDEX IF NOT EXISTS idx_friendships_user2_status ON friendships (user2_id, status);
+CREATE INDEX IF NOT EXISTS idx_friendships_initiator_status ON friendships (initiator_id, status);
@@ -0,0 +1,36 @@
+-- Реляционная таблица участников вместо сканирования jsonb_array_elements(current_participants->'participants')
+CREATE TABLE IF NOT EXISTS events.event_participants (
+    event_id      BIGINT      NOT NULL REFERENCES events.events(event_id) ON DELETE CASCADE,
+    user_id       BIGINT      NOT NULL,
+    status        VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    joined_at     TIMESTAMP,
+    checked_in_at TIMESTAMP,
+    PRIMARY KEY (event_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_participants_user_event
+    ON events.event_participants (user_id, event_id);
+
+-- Бэкфилл из существующих ивентов.
+-- Даты в jsonb лежат либо ISO-строкой, либо массивом [y, m, d, h, mi, s, nanos] (Jackson по умолчанию)
+CREATE OR REPLACE FUNCTION pg_temp.jsonb_to_timestamp(v jsonb) RETURNS timestamp AS $$
+    SELECT CASE jsonb_typeof(v)
+        WHEN 'string' THEN (v #>> '{}')::timestamp
+        WHEN 'array' THEN make_timestamp(
+            (v->>0)::int, (v->>1)::int, (v->>2)::int,
+            COALESCE((v->>3)::int, 0), COALESCE((v->>4)::int, 0),
+            COALESCE((v->>5)::double precision, 0) + COALESCE((v->>6)::double precision, 0) / 1e9)
+        ELSE NULL
+    END
+$$ LANGUAGE sql IMMUTABLE;
+
+INSERT INTO events.event_participants (event_id, user_id, status, joined_at, checked_in_at)
+SELECT e.event_id,
+       CAST(p->>'participantId' AS bigint),
+       COALESCE(p->>'status', 'ACTIVE'),
+       pg_temp.jsonb_to_timestamp(p->'joinedAt'),
+       pg_temp.jsonb_to_timestamp(p->'checkedInAt')
+FROM events.events e
+CROSS JOIN LATERAL jsonb_array_elements(e.current_participants->'participants') AS p
+WHERE p->>'participantId' IS NOT NULL
+ON CONFLICT (event_id, user_id) DO NOTHING;
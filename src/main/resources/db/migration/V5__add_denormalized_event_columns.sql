@@ -0,0 +1,24 @@
+-- Горячие поля из jsonb выносим в обычные колонки (заполняются приложением в Event.onCreate)
+ALTER TABLE events.events
+    ADD COLUMN IF NOT EXISTS organizer_id      BIGINT,
+    ADD COLUMN IF NOT EXISTS sport_id          BIGINT,
+    ADD COLUMN IF NOT EXISTS sport_type        VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS price             DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS max_participants  INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS participants_size INTEGER NOT NULL DEFAULT 0;
+
+-- Бэкфилл существующих строк
+UPDATE events.events
+SET organizer_id      = CAST(organizer_event->>'organizerId' AS bigint),
+    sport_id          = CAST(sport_event->>'sportId' AS bigint),
+    sport_type        = sport_event->>'sportType',
+    price             = CAST(sport_event->>'price' AS double precision),
+    max_participants  = COALESCE(CAST(sport_event->>'maxParticipants' AS integer), 0),
+    participants_size = COALESCE(CAST(current_participants->>'size' AS integer), 0);
+
+CREATE INDEX IF NOT EXISTS idx_events_organizer_id ON events.events (organizer_id, date_time);
+CREATE INDEX IF NOT EXISTS idx_events_sport_id ON events.events (sport_id, date_time);
+CREATE INDEX IF NOT EXISTS idx_events_sport_type ON events.events (sport_type, date_time);
+CREATE INDEX IF NOT EXISTS idx_events_price ON events.events (price);
+-- Фильтр по свободным местам: выражение должно совпадать с тем, что строит EventSpecification
+CREATE INDEX IF NOT EXISTS idx_events_free_spots ON events.events ((max_participants - participants_size));
@@ -0,0 +1,26 @@
+-- Таймлайн ивентов пользователя: одна строка на (пользователь, ивент) с копией date_time и status,
+-- чтобы "ближайший / текущий / сегодня / последние" читались по индексу (user_id, date_time)
+CREATE TABLE IF NOT EXISTS events.user_event_timeline (
+    user_id   BIGINT      NOT NULL,
+    event_id  BIGINT      NOT NULL REFERENCES events.events(event_id) ON DELETE CASCADE,
+    role      VARCHAR(20) NOT NULL,
+    date_time TIMESTAMP,
+    status    VARCHAR(20),
+    PRIMARY KEY (user_id, event_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_event_timeline_user_date
+    ON events.user_event_timeline (user_id, date_time);
+
+-- Бэкфилл: сначала организаторы, затем участники (роль организатора не перезаписывается)
+INSERT INTO events.user_event_timeline (user_id, event_id, role, date_time, status)
+SELECT e.organizer_id, e.event_id, 'ORGANIZER', e.date_time, e.status
+FROM events.events e
+WHERE e.organizer_id IS NOT NULL
+ON CONFLICT (user_id, event_id) DO NOTHING;
+
+INSERT INTO events.user_event_timeline (user_id, event_id, role, date_time, status)
+SELECT ep.user_id, e.event_id, 'PARTICIPANT', e.date_time, e.status
+FROM events.event_participants ep
+JOIN events.events e ON e.event_id = ep.event_id
+ON CONFLICT (user_id, event_id) DO NOTHING;
@@ -0,0 +1,32 @@
+-- Счётчики для профиля вместо трёх COUNT по events / event_participants на каждый просмотр
+CREATE TABLE IF NOT EXISTS events.user_event_stats (
+    user_id               BIGINT PRIMARY KEY,
+    events_as_organizer   INTEGER NOT NULL DEFAULT 0,
+    events_as_participant INTEGER NOT NULL DEFAULT 0,
+    completed_events      INTEGER NOT NULL DEFAULT 0,
+    updated_at            TIMESTAMP
+);
+
+-- Бэкфилл; тот же запрос, что и UserEventStatsRepository.rebuildAll()
+INSERT INTO events.user_event_stats (user_id, events_as_organizer, events_as_participant, completed_events, updated_at)
+SELECT u.user_id,
+       COUNT(*) FILTER (WHERE u.role = 'ORGANIZER'),
+       COUNT(*) FILTER (WHERE u.role = 'PARTICIPANT'),
+       COUNT(*) FILTER (WHERE u.status = 'COMPLETED'),
+       now()
+FROM (
+    SELECT e.organizer_id AS user_id, 'ORGANIZER' AS role, e.status
+    FROM events.events e
+    WHERE e.organizer_id IS NOT NULL
+    UNION ALL
+    SELECT ep.user_id, 'PARTICIPANT', e.status
+    FROM events.event_participants ep
+    JOIN events.events e ON e.event_id = ep.event_id
+    WHERE e.organizer_id IS DISTINCT FROM ep.user_id
+) u
+GROUP BY u.user_id
+ON CONFLICT (user_id) DO UPDATE
+SET events_as_organizer = EXCLUDED.events_as_organizer,
+    events_as_participant = EXCLUDED.events_as_participant,
+    completed_events = EXCLUDED.completed_events,
+    updated_at = now();
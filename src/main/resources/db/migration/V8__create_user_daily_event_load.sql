@@ -0,0 +1,31 @@
+-- Дневная нагрузка пользователя вместо трёх COUNT перед каждым созданием / вступлением
+CREATE TABLE IF NOT EXISTS events.user_daily_event_load (
+    user_id        BIGINT  NOT NULL,
+    load_date      DATE    NOT NULL,
+    as_organizer   INTEGER NOT NULL DEFAULT 0,
+    as_participant INTEGER NOT NULL DEFAULT 0,
+    as_both        INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, load_date)
+);
+
+-- Бэкфилл по активным ивентам, начиная с сегодняшнего дня (прошлые даты уже не проверяются)
+INSERT INTO events.user_daily_event_load (user_id, load_date, as_organizer, as_participant, as_both)
+SELECT l.user_id, l.load_date, SUM(l.as_organizer), SUM(l.as_participant), SUM(l.as_both)
+FROM (
+    SELECT e.organizer_id AS user_id, DATE(e.date_time) AS load_date, 1 AS as_organizer, 0 AS as_participant, 0 AS as_both
+    FROM events.events e
+    WHERE e.organizer_id IS NOT NULL
+      AND e.status NOT IN ('REJECTED', 'EXPIRED', 'CANCELLED', 'COMPLETED')
+      AND e.date_time >= CURRENT_DATE
+    UNION ALL
+    SELECT ep.user_id, DATE(e.date_time), 0, 1, CASE WHEN e.organizer_id = ep.user_id THEN 1 ELSE 0 END
+    FROM events.event_participants ep
+    JOIN events.events e ON e.event_id = ep.event_id
+    WHERE e.status NOT IN ('REJECTED', 'EXPIRED', 'CANCELLED', 'COMPLETED')
+      AND e.date_time >= CURRENT_DATE
+) l
+GROUP BY l.user_id, l.load_date
+ON CONFLICT (user_id, load_date) DO UPDATE
+SET as_organizer = EXCLUDED.as_organizer,
+    as_participant = EXCLUDED.as_participant,
+    as_both = EXCLUDED.as_both;
@@ -0,0 +1,3 @@
+-- Индекс под keyset-пагинацию ленты площадки: WHERE place_id = ? ORDER BY date_time, event_id
+CREATE INDEX IF NOT EXISTS idx_events_place_date_id
+    ON events.events (place_id, date_time, event_id);
@@ -0,0 +1,264 @@
+package com.is.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.is.auth.repository.UserFcmTokenRepository;
+import com.is.events.repository.EventsRepository;
+import com.is.friendship.repository.FriendshipRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.data.jpa.repository.Query;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Прогоняет EXPLAIN (ANALYZE, BUFFERS) для каждого native @Query из репозиториев и падает,
+ * если запрос вышел за бюджет по cost / времени или делает Seq Scan по большой таблице.
+ * JPQL нельзя отдать в EXPLAIN без Hibernate: для keyset-лент карточек и FriendshipRepository SQL написан
+ * вручную в JPQL_SQL (у FriendshipRepository он обязателен для каждого @Query), Criteria-ленты — в CRITERIA_SQL.
+ * Нужна Postgres со схемой приложения: -Dqueryplan.jdbcUrl=... (-Dqueryplan.user, -Dqueryplan.password),
+ * -Dqueryplan.seed=true заливает датасет из queryplan/seed.sql. Без jdbcUrl тесты пропускаются;
+ * профиль query-plan (mvn test -Pquery-plan) включает их и роняет сборку, если базы нет.
+ * Отчёт пишется в target/query-plan-report.csv.
+ */
+class QueryPlanRegressionTests {
+
+    private static final List<Class<?>> REPOSITORIES =
+            List.of(EventsRepository.class, UserFcmTokenRepository.class, FriendshipRepository.class);
+
+    private static final double MAX_COST = Double.parseDouble(System.getProperty("queryplan.maxCost", "20000"));
+    private static final double MAX_MILLIS = Double.parseDouble(System.getProperty("queryplan.maxMillis", "100"));
+    private static final Set<String> LARGE_TABLES = Set.of(System.getProperty("queryplan.largeTables",
+            "events,event_messages,event_participants,user_event_timeline,users,user_details,user_fcm_tokens,friendships").split(","));
+
+    // Значения для именованных параметров; новый параметр в @Query нужно добавить сюда
+    private static final Map<String, String> SAMPLE_VALUES = Map.ofEntries(
+            Map.entry("userId", "1000"),
+            Map.entry("organizerId", "1000"),
+            Map.entry("excludeUserId", "1000"),
+            Map.entry("eventId", "5000"),
+            Map.entry("placeId", "10"),
+            Map.entry("cityId", "1"),
+            Map.entry("sportId", "3"),
+            Map.entry("status", "'OPEN'"),
+            Map.entry("statuses", "ARRAY['OPEN', 'CONFIRMED']"),
+            Map.entry("today", "CURRENT_DATE"),
+            Map.entry("date", "CURRENT_DATE"),
+            Map.entry("currentDate", "CURRENT_DATE"),
+            Map.entry("startDate", "CURRENT_DATE"),
+            Map.entry("endDate", "CURRENT_DATE + 30"),
+            Map.entry("currentTime", "CAST(now() AS timestamp)"),
+            Map.entry("now", "CAST(now() AS timestamp)"),
+            Map.entry("startTime", "CAST(now() AS timestamp)"),
+            Map.entry("endTime", "CAST(now() + interval '1 hour' AS timestamp)"),
+            Map.entry("from", "CAST(date_trunc('day', now()) AS timestamp)"),
+            Map.entry("to", "CAST(date_trunc('day', now()) + interval '7 days' AS timestamp)"),
+            Map.entry("now_plus_30", "CAST(now() + interval '30 minutes' AS timestamp)"),
+            Map.entry("cursorTime", "CAST('9999-12-31' AS timestamp)"),
+            Map.entry("cursorId", "9223372036854775807"),
+            Map.entry("user", "1000"),
+            Map.entry("user1", "1000"),
+            Map.entry("user2", "1001"),
+            Map.entry("limit", "21"));
+
+    // SQL, который Hibernate строит для JPQL-запросов и Criteria-лент; при изменении JPQL в репозиториях
+    // или EventSpecification.after обновить вместе с ними
+    private static final String CARD_COLUMNS = """
+            SELECT e.event_id, e.title, e.date_time, e.status, e.place_id,
+                   e.sport_type, e.price, e.participants_size, e.max_participants
+            FROM events.events e
+            """;
+    private static final String FRIENDSHIP_PAIR = """
+            ((f.user1_id = :user1 AND f.user2_id = :user2) OR (f.user1_id = :user2 AND f.user2_id = :user1))
+            """;
+    private static final Map<String, String> JPQL_SQL = Map.ofEntries(
+            Map.entry("EventsRepository.findEventCardsByPlaceAndDateRangeBefore", CARD_COLUMNS + """
+                    WHERE e.place_id = :placeId
+                    AND e.date_time >= :from AND e.date_time < :to
+                    AND e.status NOT IN ('REJECTED', 'EXPIRED')
+                    AND (e.date_time < :cursorTime OR (e.date_time = :cursorTime AND e.event_id < :cursorId))
+                    ORDER BY e.date_time DESC, e.event_id DESC
+                    LIMIT :limit
+                    """),
+            Map.entry("EventsRepository.findEventCardsByCityId", CARD_COLUMNS + """
+                    WHERE e.city_id = :cityId AND e.status IN ('OPEN', 'CONFIRMED') AND e.date_time >= :from
+                    ORDER BY e.date_time ASC, e.event_id ASC
+                    LIMIT :limit
+                    """),
+            Map.entry("FriendshipRepository.findByUsers",
+                    "SELECT f.* FROM friendships f WHERE " + FRIENDSHIP_PAIR),
+            Map.entry("FriendshipRepository.findByUsersAndStatus",
+                    "SELECT f.* FROM friendships f WHERE " + FRIENDSHIP_PAIR + " AND f.status = 'ACCEPTED'"),
+            Map.entry("FriendshipRepository.existsByUsersAndStatus",
+                    "SELECT COUNT(f.id) > 0 FROM friendships f WHERE " + FRIENDSHIP_PAIR + " AND f.status = 'ACCEPTED'"),
+            Map.entry("FriendshipRepository.deleteByUsers",
+                    "DELETE FROM friendships f WHERE " + FRIENDSHIP_PAIR),
+            // Страничный и списочный варианты: проверяется страница, COUNT — отдельными запросами ниже
+            Map.entry("FriendshipRepository.findByUserAndStatus", """
+                    SELECT f.* FROM friendships f
+                    WHERE (f.user1_id = :user OR f.user2_id = :user) AND f.status = 'ACCEPTED'
+                    LIMIT :limit
+                    """),
+            Map.entry("FriendshipRepository.findByInitiatorAndStatus", """
+                    SELECT f.* FROM friendships f
+                    WHERE f.initiator_id = :user AND f.status = 'PENDING'
+                    LIMIT :limit
+                    """),
+            Map.entry("FriendshipRepository.findIncomingRequests", """
+                    SELECT f.* FROM friendships f
+                    WHERE f.user2_id = :user AND f.status = 'PENDING'
+                    LIMIT :limit
+                    """),
+            Map.entry("FriendshipRepository.countByUserAndStatus", """
+                    SELECT COUNT(f.id) FROM friendships f
+                    WHERE (f.user1_id = :user OR f.user2_id = :user) AND f.status = 'ACCEPTED'
+                    """),
+            Map.entry("FriendshipRepository.countIncomingRequests", """
+                    SELECT COUNT(f.id) FROM friendships f
+                    WHERE f.user2_id = :user AND f.status = 'PENDING'
+                    """));
+    private static final Map<String, String> CRITERIA_SQL = Map.of(
+            "EventsRepositoryImpl.findCardsLimited(after DESC)", CARD_COLUMNS + """
+                    WHERE e.status IN ('OPEN', 'CONFIRMED')
+                    AND (e.date_time < :cursorTime OR (e.date_time = :cursorTime AND e.event_id < :cursorId))
+                    ORDER BY e.date_time DESC, e.event_id DESC
+                    LIMIT :limit
+                    """);
+    // Репозитории, JPQL которых нельзя пропускать: без SQL в JPQL_SQL тест падает
+    private static final Set<String> JPQL_REQUIRED = Set.of("FriendshipRepository");
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile("(?<!:):([A-Za-z_][A-Za-z0-9_]*)");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<String> REPORT = new ArrayList<>();
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void connect() throws SQLException, IOException {
+        String url = System.getProperty("queryplan.jdbcUrl");
+        if (Boolean.getBoolean("queryplan.required")) {
+            assertNotNull(url, "queryplan.jdbcUrl must be set when queryplan.required=true");
+        }
+        assumeTrue(url != null, "queryplan.jdbcUrl is not set, skipping query plan checks");
+        connection = DriverManager.getConnection(url,
+                System.getProperty("queryplan.user", "postgres"), System.getProperty("queryplan.password", ""));
+        if (Boolean.getBoolean("queryplan.seed")) {
+            try (InputStream seed = QueryPlanRegressionTests.class.getResourceAsStream("/queryplan/seed.sql");
+                 Statement statement = connection.createStatement()) {
+                statement.execute(new String(Objects.requireNonNull(seed).readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        // EXPLAIN ANALYZE выполняет запрос, модифицирующие откатываются
+        connection.setAutoCommit(false);
+        REPORT.add("query,execution_ms,total_cost,seq_scans,result");
+    }
+
+    @AfterAll
+    static void writeReport() throws SQLException, IOException {
+        if (connection == null) {
+            return;
+        }
+        connection.rollback();
+        connection.close();
+        Path report = Path.of("target", "query-plan-report.csv");
+        Files.createDirectories(report.getParent());
+        Files.write(report, REPORT, StandardCharsets.UTF_8);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> nativeQueriesStayWithinBudget() {
+        return REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> method.isAnnotationPresent(Query.class))
+                        .sorted(Comparator.comparing(Method::getName))
+                        .map(method -> DynamicTest.dynamicTest(
+                                repository.getSimpleName() + "." + method.getName(),
+                                () -> checkPlan(repository.getSimpleName() + "." + method.getName(),
+                                        method.getAnnotation(Query.class)))));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> criteriaQueriesStayWithinBudget() {
+        return CRITERIA_SQL.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(feed -> DynamicTest.dynamicTest(feed.getKey(), () -> explain(feed.getKey(), feed.getValue())));
+    }
+
+    private void checkPlan(String name, Query query) throws Exception {
+        // JPQL проверяется по SQL из JPQL_SQL; остальные JPQL-запросы только отмечаем в отчёте
+        if (query.nativeQuery()) {
+            explain(name, query.value());
+            return;
+        }
+        String sql = JPQL_SQL.get(name);
+        if (sql != null) {
+            explain(name, sql);
+            return;
+        }
+        assertFalse(JPQL_REQUIRED.contains(name.substring(0, name.indexOf('.'))), name + " has no SQL in JPQL_SQL");
+        REPORT.add(name + ",,,,SKIPPED_JPQL");
+    }
+
+    private void explain(String name, String sql) throws Exception {
+        JsonNode plan;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + bindSamples(sql))) {
+            rs.next();
+            plan = MAPPER.readTree(rs.getString(1)).get(0);
+        } finally {
+            connection.rollback();
+        }
+
+        double millis = plan.path("Execution Time").asDouble();
+        double cost = plan.path("Plan").path("Total Cost").asDouble();
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(plan.path("Plan"), seqScans);
+
+        boolean ok = cost <= MAX_COST && millis <= MAX_MILLIS && seqScans.isEmpty();
+        REPORT.add(String.format(Locale.ROOT, "%s,%.3f,%.2f,%s,%s",
+                name, millis, cost, String.join(";", seqScans), ok ? "OK" : "FAIL"));
+
+        assertTrue(seqScans.isEmpty(), name + " uses Seq Scan on " + seqScans);
+        assertTrue(cost <= MAX_COST, name + " total cost " + cost + " exceeds " + MAX_COST);
+        assertTrue(millis <= MAX_MILLIS, name + " took " + millis + " ms, budget " + MAX_MILLIS + " ms");
+    }
+
+    private static String bindSamples(String sql) {
+        Matcher matcher = NAMED_PARAMETER.matcher(sql);
+        StringBuilder bound = new StringBuilder();
+        while (matcher.find()) {
+            String value = SAMPLE_VALUES.get(matcher.group(1));
+            assertNotNull(value, "No sample value for parameter :" + matcher.group(1));
+            matcher.appendReplacement(bound, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(bound);
+        return bound.toString();
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())
+                && LARGE_TABLES.contains(node.path("Relation Name").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        node.path("Plans").forEach(child -> collectSeqScans(child, seqScans));
+    }
+}
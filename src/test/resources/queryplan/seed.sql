@@ -0,0 +1,81 @@
+-- Синтетический датасет для QueryPlanRegressionTests: 50k пользователей, 100k ивентов, 1M сообщений.
+-- Схема должна уже существовать (ddl-auto + db/migration). Применяется при -Dqueryplan.seed=true.
+-- Идемпотентен: повторный прогон ничего не добавляет, поэтому планы и время сравнимы между запусками
+INSERT INTO users.users (email, password_hash, first_name, last_name, is_email_verified, registration_date)
+SELECT 'qp_user_' || g || '@example.com', 'x', 'User', 'N' || g, true, now() - (g % 365) * interval '1 day'
+FROM generate_series(1, 50000) g
+ON CONFLICT DO NOTHING;
+
+INSERT INTO users.user_details (user_id, favorite_sports, profile_picture_url, current_location_city_id,
+                                current_location_country_id, language, date_registered)
+SELECT u.user_id,
+       jsonb_build_array(jsonb_build_object('sportId', u.user_id % 20 + 1)),
+       '/uploads/' || u.user_id || '.jpg', (u.user_id % 10)::int + 1, 1, 'ru', u.registration_date
+FROM users.users u
+WHERE u.email LIKE 'qp_user_%'
+ON CONFLICT DO NOTHING;
+
+INSERT INTO users.user_fcm_tokens (user_id, token, device_type, created_at, last_used_at)
+SELECT u.user_id, 'qp_token_' || u.user_id, 'android', now(), now()
+FROM users.users u
+WHERE u.email LIKE 'qp_user_%'
+ON CONFLICT DO NOTHING;
+
+-- Ивенты: ±180 дней от сегодня, 200 площадок
+WITH users_range AS (
+    SELECT min(user_id) AS first_id, count(*) AS total FROM users.users WHERE email LIKE 'qp_user_%'
+)
+INSERT INTO events.events (place_id, date_time, status, title, description, organizer_id, sport_id, sport_type,
+                           price, max_participants, participants_size, organizer_event, sport_event, current_participants)
+SELECT g % 200 + 1,
+       date_trunc('hour', now()) + ((g % 360) - 180) * interval '1 day' + (g % 12) * interval '1 hour',
+       (ARRAY['OPEN', 'PENDING_APPROVAL', 'CONFIRMED', 'IN_PROGRESS', 'COMPLETED', 'CANCELLED', 'EXPIRED'])[g % 7 + 1],
+       'Event ' || g, 'Synthetic event ' || g,
+       r.first_id + g % r.total, g % 20 + 1, 'SPORT_' || (g % 20 + 1), (g % 5) * 10000, 10, 3,
+       jsonb_build_object('organizerId', r.first_id + g % r.total, 'organizerName', 'User'),
+       jsonb_build_object('sportId', g % 20 + 1, 'sportType', 'SPORT_' || (g % 20 + 1), 'maxParticipants', 10, 'price', (g % 5) * 10000),
+       jsonb_build_object('size', 3, 'participants', jsonb_build_array(
+               jsonb_build_object('participantId', r.first_id + (g * 7) % r.total, 'status', 'ACTIVE'),
+               jsonb_build_object('participantId', r.first_id + (g * 11) % r.total, 'status', 'ACTIVE'),
+               jsonb_build_object('participantId', r.first_id + (g * 13) % r.total, 'status', 'ACTIVE')))
+FROM generate_series(1, 100000) g, users_range r
+WHERE NOT EXISTS (SELECT 1 FROM events.events e WHERE e.description LIKE 'Synthetic event %');
+
+INSERT INTO events.event_participants (event_id, user_id, status, joined_at)
+SELECT e.event_id, CAST(p->>'participantId' AS bigint), 'ACTIVE', e.date_time - interval '1 day'
+FROM events.events e
+CROSS JOIN LATERAL jsonb_array_elements(e.current_participants->'participants') p
+WHERE e.title LIKE 'Event %'
+ON CONFLICT DO NOTHING;
+
+INSERT INTO events.user_event_timeline (user_id, event_id, role, date_time, status)
+SELECT e.organizer_id, e.event_id, 'ORGANIZER', e.date_time, e.status
+FROM events.events e WHERE e.title LIKE 'Event %'
+ON CONFLICT DO NOTHING;
+
+INSERT INTO events.user_event_timeline (user_id, event_id, role, date_time, status)
+SELECT ep.user_id, e.event_id, 'PARTICIPANT', e.date_time, e.status
+FROM events.event_participants ep JOIN events.events e ON e.event_id = ep.event_id
+WHERE e.title LIKE 'Event %'
+ON CONFLICT DO NOTHING;
+
+-- 1M сообщений: по 10 на каждый из 100k ивентов
+INSERT INTO events.event_messages (event_id, sender_id, sender_name, content, sent_at, message_type, is_edited, is_deleted)
+SELECT e.event_id, e.organizer_id, 'User', 'Message ' || m, e.date_time - m * interval '5 minutes', 'CHAT', false, false
+FROM events.events e, generate_series(1, 10) m
+WHERE e.description LIKE 'Synthetic event %'
+  AND NOT EXISTS (SELECT 1 FROM events.event_messages x WHERE x.event_id = e.event_id);
+
+-- 200k дружб между qp-пользователями, статусы вперемешку
+WITH users_range AS (
+    SELECT min(user_id) AS first_id, count(*) AS total FROM users.users WHERE email LIKE 'qp_user_%'
+)
+INSERT INTO friendships (user1_id, user2_id, initiator_id, status, created_at, updated_at)
+SELECT r.first_id + g % r.total, r.first_id + (g * 7 + 1) % r.total, r.first_id + g % r.total,
+       (ARRAY['ACCEPTED', 'PENDING', 'REJECTED', 'BLOCKED'])[g % 4 + 1], now(), now()
+FROM generate_series(1, 200000) g, users_range r
+WHERE NOT EXISTS (
+    SELECT 1 FROM friendships f JOIN users.users u ON u.user_id = f.user1_id WHERE u.email LIKE 'qp_user_%'
+);
+
+ANALYZE;